@@ -7,8 +7,6 @@ import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Path;
-import android.graphics.PointF;
-import android.graphics.Rect;
 import android.os.Parcel;
 import android.os.Parcelable;
 import android.text.TextPaint;
@@ -17,12 +15,19 @@ import android.view.MotionEvent;
 import android.view.View;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Locale;
+
+import mobileapps.aau.at.ab01.stroke.Stroke;
+import mobileapps.aau.at.ab01.stroke.StrokeModel;
+import mobileapps.aau.at.ab01.text.CoordinateText;
 
 /**
  * Touch view.
+ *
+ * <p>
+ *     Touch events and drawing do not allocate, except when the arrays of the strokes grow.
+ *     The allocation budgets are checked by {@code TouchViewAllocationTest}.
+ * </p>
  */
 public class TouchView extends View {
 
@@ -39,14 +44,21 @@ public class TouchView extends View {
     };
 
     /**
-     * List storing data needed for handling touch (add points, drawing stuff, ...).
+     * Points drawn by each pointer.
      */
-    private final List<TouchViewData> touchViewData = new LinkedList<>();
+    private final StrokeModel strokes = new StrokeModel();
+
+    /**
+     * Data needed for drawing each stroke, in the same order as the strokes.
+     */
+    private final List<TouchViewData> touchViewData = new ArrayList<>();
 
     private TextPaint textPaint;
     private Paint textBackground;
     private float textHeight = 0.0f;
-    private String text = "";
+
+    // coordinates of the last point, formatted without creating strings
+    private final CoordinateText text = new CoordinateText();
 
     // attributes
     private int bgColor = Color.DKGRAY;
@@ -170,7 +182,7 @@ public class TouchView extends View {
     public boolean onTouchEvent(MotionEvent event) {
 
         // test if pointing is in our area
-        if (!getContentRect().contains(Math.round(event.getX()), Math.round(event.getY()))) {
+        if (!isInContent(Math.round(event.getX()), Math.round(event.getY()))) {
             return false;
         }
 
@@ -209,56 +221,53 @@ public class TouchView extends View {
     private void handleDownEvent(MotionEvent event) {
 
         int pointerIndex = event.getActionIndex();
-        int pointerId = event.getPointerId(pointerIndex);
-
-        TouchViewData data = find(pointerId);
-        if (data == null) {
-            // new pointer
-            int nextColor = PATH_COLORS[touchViewData.size() % PATH_COLORS.length];
-            data = new TouchViewData(nextColor, pointerId);
-            touchViewData.add(data);
-        } else {
-            // pointer was encountered before - start a new path
-            data.moveTo();
-        }
 
         final float x = event.getX(pointerIndex);
         final float y = event.getY(pointerIndex);
-        data.addPoint(x, y);
+        pointerDown(event.getPointerId(pointerIndex), x, y);
 
-        text = String.format(Locale.US, "%.1f / %.1f", x, y);
+        text.setCoordinates(x, y);
     }
 
     private void handleMovedEvent(MotionEvent event) {
 
-        PointF lastPoint = null;
+        int lastPointer = -1;
         for (int size = event.getPointerCount(), i = 0; i < size; i++) {
-            TouchViewData data = find(event.getPointerId(i));
-            if (data != null) {
-                final float x = event.getX(i);
-                final float y = event.getY(i);
-                data.addPoint(x, y);
-                if (lastPoint != null) {
-                    lastPoint.set(x, y);
-                } else {
-                    lastPoint = new PointF(x, y);
-                }
+            if (pointerMove(event.getPointerId(i), event.getX(i), event.getY(i))) {
+                lastPointer = i;
             }
         }
-        if (lastPoint != null) {
-            text = String.format(Locale.US, "%.1f / %.1f", lastPoint.x, lastPoint.y);
+        if (lastPointer >= 0) {
+            text.setCoordinates(event.getX(lastPointer), event.getY(lastPointer));
         }
     }
 
-    private TouchViewData find(int pointerId) {
+    /**
+     * Add the first point of a new segment to the stroke of a pointer.
+     */
+    private void pointerDown(int pointerId, float x, float y) {
 
-        for (TouchViewData data : touchViewData) {
-            if (data.getPointerId() == pointerId) {
-                return data;
-            }
+        final int index = strokes.pointerDown(pointerId, x, y);
+        if (index == touchViewData.size()) {
+            // new pointer
+            touchViewData.add(new TouchViewData(PATH_COLORS[index % PATH_COLORS.length]));
         }
+        touchViewData.get(index).getPath().moveTo(x, y);
+    }
+
+    /**
+     * Add a point to the stroke of a pointer.
+     *
+     * @return Indicating whether the pointer touched down before.
+     */
+    private boolean pointerMove(int pointerId, float x, float y) {
 
-        return null;
+        final int index = strokes.pointerMove(pointerId, x, y);
+        if (index < 0) {
+            return false;
+        }
+        touchViewData.get(index).getPath().lineTo(x, y);
+        return true;
     }
 
     @Override
@@ -286,7 +295,7 @@ public class TouchView extends View {
                 textBackground);
 
         // and draw the text
-        canvas.drawText(text,
+        canvas.drawText(text.getChars(), 0, text.length(),
                 contentWidth / 2.0f,
                 contentHeight - textHeight,
                 textPaint);
@@ -296,18 +305,22 @@ public class TouchView extends View {
 
 
         // last but not least draw the paths
-        for (TouchViewData data : touchViewData) {
-            if (data.getNumPointsAdded() > 1) {
+        for (int size = strokes.size(), i = 0; i < size; i++) {
+            if (strokes.get(i).getNumPoints() > 1) {
+                TouchViewData data = touchViewData.get(i);
                 canvas.drawPath(data.getPath(), data.getPaint());
             }
         }
     }
 
-    private Rect getContentRect() {
-        return new Rect(getPaddingLeft(),
-                getPaddingTop(),
-                getWidth() - getPaddingRight(),
-                getHeight() - getPaddingBottom());
+    /**
+     * Test whether a point is within the content area, i.e. inside the padding.
+     */
+    private boolean isInContent(int x, int y) {
+        return x >= getPaddingLeft()
+                && y >= getPaddingTop()
+                && x < getWidth() - getPaddingRight()
+                && y < getHeight() - getPaddingBottom();
     }
 
     @Override
@@ -315,12 +328,12 @@ public class TouchView extends View {
         // save instance of super class
         Parcelable superState = super.onSaveInstanceState();
 
-        if (touchViewData.isEmpty()) {
+        if (strokes.isEmpty()) {
             // nothing to save
             return superState;
         }
 
-        return new SavedState(superState, touchViewData, text);
+        return new SavedState(superState, strokes, text.toString());
     }
 
     @Override
@@ -332,8 +345,19 @@ public class TouchView extends View {
         }
 
         SavedState savedState = (SavedState)state;
-        text = savedState.text;
-        touchViewData.addAll(savedState.touchViewData);
+        text.setText(savedState.text);
+
+        // paths are drawn again from the saved points
+        for (int i = 0; i < savedState.strokes.size(); i++) {
+            Stroke stroke = savedState.strokes.get(i);
+            for (int segment = 0; segment < stroke.getNumSegments(); segment++) {
+                final int start = stroke.getSegmentStart(segment);
+                pointerDown(stroke.getPointerId(), stroke.getX(start), stroke.getY(start));
+                for (int j = start + 1; j < stroke.getSegmentEnd(segment); j++) {
+                    pointerMove(stroke.getPointerId(), stroke.getX(j), stroke.getY(j));
+                }
+            }
+        }
 
         // force view redraw
         invalidate();
@@ -350,8 +374,9 @@ public class TouchView extends View {
     public void clear() {
 
         // reset the text
-        text = "";
-        // clear added touch view data
+        text.clear();
+        // clear added strokes and their paths
+        strokes.clear();
         touchViewData.clear();
 
         // invalidate to force redraw
@@ -367,12 +392,12 @@ public class TouchView extends View {
      */
     public static class SavedState extends BaseSavedState {
 
-        private final List<TouchViewData> touchViewData;
+        private final StrokeModel strokes;
         private final String text;
 
-        SavedState(Parcelable source, List<TouchViewData> touchViewData, String text) {
+        SavedState(Parcelable source, StrokeModel strokes, String text) {
             super(source);
-            this.touchViewData = touchViewData;
+            this.strokes = strokes;
             this.text = text;
         }
 
@@ -383,18 +408,23 @@ public class TouchView extends View {
             // marshalling of the text
             out.writeString(text);
 
-            // marshalling of touchViewData
-            // don't wanna make TouchViewData parcelable, therefore handcraft marshalling
-            out.writeInt(touchViewData.size());
-            for (TouchViewData data : touchViewData) {
+            // marshalling of the strokes
+            // don't wanna make strokes parcelable, therefore handcraft marshalling
+            out.writeInt(strokes.size());
+            for (int i = 0; i < strokes.size(); i++) {
+                Stroke stroke = strokes.get(i);
                 // write meta data
-                out.writeInt(data.getPointerId());
-                out.writeInt(data.getColor());
-                // write raw points
-                List<List<PointF>> rawPoints = data.getRawPoints();
-                out.writeInt(rawPoints.size());
-                for (List<PointF> points : rawPoints) {
-                    out.writeTypedList(points);
+                out.writeInt(stroke.getPointerId());
+                out.writeInt(stroke.getNumSegments());
+                // write raw points of each segment
+                for (int segment = 0; segment < stroke.getNumSegments(); segment++) {
+                    final int start = stroke.getSegmentStart(segment);
+                    final int end = stroke.getSegmentEnd(segment);
+                    out.writeInt(end - start);
+                    for (int j = start; j < end; j++) {
+                        out.writeFloat(stroke.getX(j));
+                        out.writeFloat(stroke.getY(j));
+                    }
                 }
             }
         }
@@ -420,47 +450,32 @@ public class TouchView extends View {
             super(source);
 
             text = source.readString();
-            int numTouchViewData = source.readInt();
-            touchViewData = new ArrayList<>(numTouchViewData);
-
-            for (int i = 0; i < numTouchViewData; i++) {
-                touchViewData.add(restoreTouchViewData(source));
-            }
-        }
-
-        private TouchViewData restoreTouchViewData(Parcel source) {
-
-            int pointerId = source.readInt();
-            int color = source.readInt();
-
-            TouchViewData result = new TouchViewData(color, pointerId);
-            int numPointPaths = source.readInt();
-            for (int i = 0; i < numPointPaths; i++) {
-                result.moveTo();
-                LinkedList<PointF> points = new LinkedList<>();
-                source.readTypedList(points, PointF.CREATOR);
-
-                for (PointF point : points) {
-                    result.addPoint(point);
+            strokes = new StrokeModel();
+
+            int numStrokes = source.readInt();
+            for (int i = 0; i < numStrokes; i++) {
+                int pointerId = source.readInt();
+                int numSegments = source.readInt();
+                for (int segment = 0; segment < numSegments; segment++) {
+                    int numPoints = source.readInt();
+                    for (int j = 0; j < numPoints; j++) {
+                        final float x = source.readFloat();
+                        final float y = source.readFloat();
+                        if (j == 0) {
+                            strokes.pointerDown(pointerId, x, y);
+                        } else {
+                            strokes.pointerMove(pointerId, x, y);
+                        }
+                    }
                 }
             }
-
-            return result;
         }
     }
 
     /**
-     * Utility class storing some touch related data.
+     * Utility class storing the data needed for drawing a stroke.
      */
     private static final class TouchViewData {
-        /**
-         * Pointer it managed by this data class.
-         */
-        private final int pointerId;
-        /**
-         * Raw points added to
-         */
-        private final LinkedList<List<PointF>> rawPoints = new LinkedList<>();
         /**
          * Path drawn by user
          */
@@ -469,26 +484,13 @@ public class TouchView extends View {
          * Paint object used for drawing the path.
          */
         private final Paint paint = new Paint();
-        /**
-         * number of points added so far.
-         *
-         * <p>
-         *     Could be counted by traversing the {@link #rawPoints}, but updating an integer is faster.
-         * </p>
-         */
-        private int numPointsAdded = 0;
-        /**
-         * Indicating whether it's a move to or line to.
-         */
-        private boolean moveTo = true;
 
 
         /**
          * Create new touch view data.
          * @param color Color used for drawing the paths.
          */
-        private TouchViewData(int color, int pointerId) {
-            this.pointerId = pointerId;
+        private TouchViewData(int color) {
             initPaint(color);
         }
 
@@ -503,54 +505,6 @@ public class TouchView extends View {
             paint.setStyle(Paint.Style.STROKE);
         }
 
-        /**
-         * Get the pointer id.
-         */
-        int getPointerId() {
-            return pointerId;
-        }
-
-        void addPoint(PointF point) {
-            addPoint(point.x, point.y);
-        }
-
-        /**
-         * Add a point.
-         * @param x X-coordinate
-         * @param y Y-coordinate
-         */
-        void addPoint(float x, float y) {
-            if (moveTo) {
-                // update new list for raw points
-                rawPoints.add(new LinkedList<PointF>());
-                // apply move command
-                path.moveTo(x, y);
-                // next time it's not necessarily move any more
-                moveTo = false;
-            } else {
-                // move line to
-                path.lineTo(x, y);
-            }
-            // update raw points & total number of points
-            rawPoints.getLast().add(new PointF(x, y));
-            numPointsAdded += 1;
-        }
-
-        /**
-         * Next point added is a "move to" operation instead of "line to".
-         */
-        void moveTo() {
-            moveTo = true;
-        }
-
-        /**
-         * Get total number of points added so far.
-         * @return Total number of points added using {@link #addPoint(float, float)}.
-         */
-        int getNumPointsAdded() {
-            return numPointsAdded;
-        }
-
         /**
          * Get the path object.
          */
@@ -564,19 +518,5 @@ public class TouchView extends View {
         Paint getPaint() {
             return paint;
         }
-
-        /**
-         * Get the color.
-         */
-        int getColor() {
-            return getPaint().getColor();
-        }
-
-        /**
-         * Get all added raw points.
-         */
-        List<List<PointF>> getRawPoints() {
-            return rawPoints;
-        }
     }
 }
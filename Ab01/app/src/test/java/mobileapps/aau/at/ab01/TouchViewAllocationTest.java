@@ -0,0 +1,118 @@
+package mobileapps.aau.at.ab01;
+
+import android.app.Activity;
+import android.graphics.Canvas;
+import android.graphics.Path;
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import mobileapps.aau.at.testing.AllocationBudget;
+import mobileapps.aau.at.testing.ShadowPlainCanvas;
+
+/**
+ * Allocation budgets of touch handling and drawing of {@link TouchView}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TouchViewAllocationTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 960;
+
+    private TouchView view;
+    private MotionEvent down;
+    private MotionEvent move;
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        view = new TouchView(activity);
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, WIDTH, HEIGHT);
+
+        // events are reused, on a device they come from a pool as well
+        down = MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, 0, 0, 0);
+        move = MotionEvent.obtain(0, 0, MotionEvent.ACTION_MOVE, 0, 0, 0);
+    }
+
+    @After
+    public void tearDown() {
+        down.recycle();
+        move.recycle();
+    }
+
+    @Test
+    public void touchEventsStayWithinBudget() throws Exception {
+        final Path path = new Path();
+
+        // only the points of the stroke are stored in arrays growing by doubling, which costs
+        // 16 to 32 bytes per point, everything else must not allocate
+        new AllocationBudget("TouchView.onTouchEvent", 32)
+                .setBaseline(new AllocationBudget.Operation() {
+                    @Override
+                    public void run(int iteration) {
+                        // Robolectric records the points of paths and invalidating goes through
+                        // reflection, neither allocates on a device
+                        touch(iteration, null, path);
+                        view.invalidate();
+                    }
+                })
+                .check(new AllocationBudget.Operation() {
+                    @Override
+                    public void run(int iteration) {
+                        touch(iteration, view, null);
+                    }
+                });
+    }
+
+    @Test
+    @Config(shadows = ShadowPlainCanvas.class)
+    public void drawingDoesNotAllocate() throws Exception {
+        final Canvas canvas = new Canvas();
+        for (int i = 0; i < 1000; i++) {
+            touch(i, view, null);
+        }
+
+        // Robolectric's View.draw would only draw the background
+        new AllocationBudget("TouchView.onDraw", 0)
+                .check(new AllocationBudget.Operation() {
+                    @Override
+                    public void run(int iteration) {
+                        view.onDraw(canvas);
+                    }
+                });
+    }
+
+    /**
+     * Move the pointer on a circle, touching down again every 100 events.
+     *
+     * @param view View receiving the events, if any.
+     * @param path Path receiving the same points, if any.
+     */
+    private void touch(int iteration, View view, Path path) {
+        final float x = WIDTH / 2.0f + 200.0f * (float) Math.cos(iteration * 0.1);
+        final float y = HEIGHT / 2.0f + 200.0f * (float) Math.sin(iteration * 0.1);
+        final boolean touchDown = iteration % 100 == 0;
+
+        if (view != null) {
+            final MotionEvent event = touchDown ? down : move;
+            event.setLocation(x, y);
+            view.onTouchEvent(event);
+        }
+        if (path != null) {
+            if (touchDown) {
+                path.moveTo(x, y);
+            } else {
+                path.lineTo(x, y);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package mobileapps.aau.at.ab01.stroke;
+
+import java.util.Arrays;
+
+/**
+ * Points drawn by one pointer.
+ *
+ * <p>
+ *     The points are split into segments, a new segment is started each time the pointer
+ *     touches down again. Coordinates of all points are stored interleaved in one float
+ *     array, which grows by doubling, so adding a point does not allocate in general.
+ * </p>
+ */
+public final class Stroke {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int pointerId;
+
+    // x and y of each point
+    private float[] points = new float[2 * INITIAL_CAPACITY];
+    private int numPoints = 0;
+
+    // index of the first point of each segment
+    private int[] segmentStarts = new int[4];
+    private int numSegments = 0;
+
+    // indicating whether the next point starts a new segment
+    private boolean newSegment = true;
+
+    /**
+     * Create a new stroke.
+     *
+     * @param pointerId Id of the pointer drawing the stroke.
+     */
+    public Stroke(int pointerId) {
+        this.pointerId = pointerId;
+    }
+
+    public int getPointerId() {
+        return pointerId;
+    }
+
+    /**
+     * Add a point, it starts a new segment after {@link #startSegment()}.
+     *
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     * @return Indicating whether the point started a new segment.
+     */
+    public boolean addPoint(float x, float y) {
+        final boolean started = newSegment;
+        if (started) {
+            if (numSegments == segmentStarts.length) {
+                segmentStarts = Arrays.copyOf(segmentStarts, 2 * numSegments);
+            }
+            segmentStarts[numSegments++] = numPoints;
+            newSegment = false;
+        }
+
+        if (2 * numPoints == points.length) {
+            points = Arrays.copyOf(points, 2 * points.length);
+        }
+        points[2 * numPoints] = x;
+        points[2 * numPoints + 1] = y;
+        numPoints++;
+
+        return started;
+    }
+
+    /**
+     * The next point added starts a new segment.
+     */
+    public void startSegment() {
+        newSegment = true;
+    }
+
+    /**
+     * Get total number of points of all segments.
+     */
+    public int getNumPoints() {
+        return numPoints;
+    }
+
+    public float getX(int index) {
+        return points[2 * checkIndex(index)];
+    }
+
+    public float getY(int index) {
+        return points[2 * checkIndex(index) + 1];
+    }
+
+    public int getNumSegments() {
+        return numSegments;
+    }
+
+    /**
+     * Get the index of the first point of a segment.
+     */
+    public int getSegmentStart(int segment) {
+        if (segment < 0 || segment >= numSegments) {
+            throw new IndexOutOfBoundsException("segment: " + segment + ", segments: " + numSegments);
+        }
+        return segmentStarts[segment];
+    }
+
+    /**
+     * Get the index after the last point of a segment.
+     */
+    public int getSegmentEnd(int segment) {
+        return segment == numSegments - 1 ? numPoints : getSegmentStart(segment + 1);
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= numPoints) {
+            throw new IndexOutOfBoundsException("index: " + index + ", points: " + numPoints);
+        }
+        return index;
+    }
+}
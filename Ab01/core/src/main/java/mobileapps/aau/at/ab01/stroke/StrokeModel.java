@@ -0,0 +1,81 @@
+package mobileapps.aau.at.ab01.stroke;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Strokes drawn by all pointers of a touch surface.
+ *
+ * <p>
+ *     Each pointer id gets its own {@link Stroke} when it first touches down, in order of
+ *     appearance. A pointer touching down again continues its stroke with a new segment.
+ * </p>
+ */
+public final class StrokeModel {
+
+    private final List<Stroke> strokes = new ArrayList<>();
+
+    /**
+     * A pointer touched down.
+     *
+     * @return Index of the pointer's stroke.
+     */
+    public int pointerDown(int pointerId, float x, float y) {
+        int index = indexOf(pointerId);
+        if (index < 0) {
+            index = strokes.size();
+            strokes.add(new Stroke(pointerId));
+        }
+
+        final Stroke stroke = strokes.get(index);
+        stroke.startSegment();
+        stroke.addPoint(x, y);
+        return index;
+    }
+
+    /**
+     * A pointer moved.
+     *
+     * @return Index of the pointer's stroke or -1 if the pointer did not touch down before.
+     */
+    public int pointerMove(int pointerId, float x, float y) {
+        final int index = indexOf(pointerId);
+        if (index >= 0) {
+            strokes.get(index).addPoint(x, y);
+        }
+        return index;
+    }
+
+    /**
+     * Get the index of the stroke of a pointer.
+     *
+     * @return Index of the stroke or -1 if the pointer did not touch down before.
+     */
+    public int indexOf(int pointerId) {
+        for (int size = strokes.size(), i = 0; i < size; i++) {
+            if (strokes.get(i).getPointerId() == pointerId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int size() {
+        return strokes.size();
+    }
+
+    public boolean isEmpty() {
+        return strokes.isEmpty();
+    }
+
+    public Stroke get(int index) {
+        return strokes.get(index);
+    }
+
+    /**
+     * Remove all strokes.
+     */
+    public void clear() {
+        strokes.clear();
+    }
+}
@@ -0,0 +1,123 @@
+package mobileapps.aau.at.ab01.text;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Text showing the coordinates of a point, like {@code "12.3 / 45.6"}.
+ *
+ * <p>
+ *     The text is formatted into a reused char array instead of a new string, since it
+ *     changes with every touch event. Coordinates are rounded to one decimal like
+ *     {@code String.format(Locale.US, "%.1f / %.1f", x, y)} does.
+ * </p>
+ */
+public final class CoordinateText {
+
+    private static final String SEPARATOR = " / ";
+
+    // values up to this magnitude are formatted without allocating
+    private static final float MAX_DIRECT_VALUE = 1e9f;
+
+    private char[] chars = new char[32];
+    private int length = 0;
+
+    /**
+     * Set the text to the coordinates of a point.
+     *
+     * @param x X-coordinate
+     * @param y Y-coordinate
+     */
+    public void setCoordinates(float x, float y) {
+        length = 0;
+        appendValue(x);
+        append(SEPARATOR);
+        appendValue(y);
+    }
+
+    /**
+     * Set the text to any characters, e.g. when restoring a saved text.
+     *
+     * @param text Text to show.
+     * @throws IllegalArgumentException if the text is null.
+     */
+    public void setText(CharSequence text) {
+        if (text == null) {
+            throw new IllegalArgumentException("text is null");
+        }
+
+        length = 0;
+        append(text);
+    }
+
+    /**
+     * Clear the text.
+     */
+    public void clear() {
+        length = 0;
+    }
+
+    /**
+     * Get the characters of the text, only the first {@link #length()} are valid.
+     *
+     * <p>
+     *     The array is reused when the text changes.
+     * </p>
+     */
+    public char[] getChars() {
+        return chars;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+
+    private void appendValue(float value) {
+        if (!(Math.abs(value) < MAX_DIRECT_VALUE)) {
+            // huge values, infinity and NaN are left to the formatter
+            append(String.format(Locale.US, "%.1f", value));
+            return;
+        }
+
+        // rounded half up like the formatter, which rounds the decimal value of the float
+        final long tenths = Math.round(Math.abs((double) value) * 10.0);
+        if (Float.floatToIntBits(value) < 0) {
+            // sign bit, negative values rounded to zero keep their sign like "-0.0"
+            appendChar('-');
+        }
+
+        // integer digits are written backwards after the current end, then reversed
+        final int start = length;
+        long remaining = tenths / 10;
+        do {
+            appendChar((char) ('0' + remaining % 10));
+            remaining /= 10;
+        } while (remaining > 0);
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            final char c = chars[i];
+            chars[i] = chars[j];
+            chars[j] = c;
+        }
+
+        appendChar('.');
+        appendChar((char) ('0' + tenths % 10));
+    }
+
+    private void append(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            appendChar(text.charAt(i));
+        }
+    }
+
+    private void appendChar(char c) {
+        if (length == chars.length) {
+            chars = Arrays.copyOf(chars, 2 * length);
+        }
+        chars[length++] = c;
+    }
+}
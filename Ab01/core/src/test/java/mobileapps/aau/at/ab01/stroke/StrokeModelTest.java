@@ -0,0 +1,68 @@
+package mobileapps.aau.at.ab01.stroke;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link StrokeModel} and {@link Stroke}.
+ */
+public class StrokeModelTest {
+
+    @Test
+    public void pointersGetStrokesInOrderOfAppearance() throws Exception {
+        StrokeModel model = new StrokeModel();
+
+        assertEquals(0, model.pointerDown(7, 1.0f, 2.0f));
+        assertEquals(1, model.pointerDown(3, 5.0f, 6.0f));
+        assertEquals(0, model.pointerMove(7, 3.0f, 4.0f));
+        assertEquals(-1, model.pointerMove(42, 0.0f, 0.0f));
+
+        assertEquals(2, model.size());
+        Stroke stroke = model.get(0);
+        assertEquals(7, stroke.getPointerId());
+        assertEquals(2, stroke.getNumPoints());
+        assertEquals(3.0f, stroke.getX(1), 0.0f);
+        assertEquals(4.0f, stroke.getY(1), 0.0f);
+
+        model.clear();
+        assertTrue(model.isEmpty());
+        assertEquals(-1, model.indexOf(7));
+    }
+
+    @Test
+    public void touchingDownAgainStartsNewSegment() throws Exception {
+        StrokeModel model = new StrokeModel();
+        model.pointerDown(0, 0.0f, 0.0f);
+        model.pointerMove(0, 1.0f, 1.0f);
+        model.pointerMove(0, 2.0f, 2.0f);
+        model.pointerDown(0, 10.0f, 10.0f);
+        model.pointerMove(0, 11.0f, 11.0f);
+
+        Stroke stroke = model.get(0);
+        assertEquals(1, model.size());
+        assertEquals(5, stroke.getNumPoints());
+        assertEquals(2, stroke.getNumSegments());
+        assertEquals(0, stroke.getSegmentStart(0));
+        assertEquals(3, stroke.getSegmentEnd(0));
+        assertEquals(3, stroke.getSegmentStart(1));
+        assertEquals(5, stroke.getSegmentEnd(1));
+        assertEquals(10.0f, stroke.getX(3), 0.0f);
+    }
+
+    @Test
+    public void strokesGrowBeyondInitialCapacity() throws Exception {
+        Stroke stroke = new Stroke(0);
+        for (int i = 0; i < 10000; i++) {
+            if (i % 100 == 0) {
+                stroke.startSegment();
+            }
+            assertEquals(i % 100 == 0, stroke.addPoint(i, -i));
+        }
+
+        assertEquals(10000, stroke.getNumPoints());
+        assertEquals(100, stroke.getNumSegments());
+        assertEquals(9900, stroke.getSegmentStart(99));
+        assertEquals(-9999.0f, stroke.getY(9999), 0.0f);
+    }
+}
@@ -0,0 +1,50 @@
+package mobileapps.aau.at.ab01.text;
+
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CoordinateText}.
+ */
+public class CoordinateTextTest {
+
+    @Test
+    public void coordinatesAreFormattedLikeTheFormatter() throws Exception {
+        CoordinateText text = new CoordinateText();
+        float[] values = {
+                0.0f, -0.0f, -0.04f, 0.05f, 0.25f, -0.25f, 9.95f, 99.95f, 1079.5f, 999999.94f,
+                1e9f, -3.4e38f, Float.NaN, Float.POSITIVE_INFINITY
+        };
+        for (float value : values) {
+            assertFormatted(text, value, -value);
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            assertFormatted(text, random.nextFloat() * 4000.0f - 2000.0f, (float) (random.nextGaussian() * 1e6));
+        }
+    }
+
+    @Test
+    public void textCanBeReplacedAndCleared() throws Exception {
+        CoordinateText text = new CoordinateText();
+        text.setCoordinates(123456.7f, 8.9f);
+        text.setText("restored");
+
+        assertEquals("restored", text.toString());
+        assertEquals(8, text.length());
+        assertEquals('r', text.getChars()[0]);
+
+        text.clear();
+        assertEquals("", text.toString());
+    }
+
+    private static void assertFormatted(CoordinateText text, float x, float y) {
+        text.setCoordinates(x, y);
+        assertEquals(String.format(Locale.US, "%.1f / %.1f", x, y), text.toString());
+    }
+}
@@ -0,0 +1,63 @@
+package mobileapps.aau.at.ab01.stroke;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of recording touch events in a {@link StrokeModel} and of reading the points back,
+ * as done when drawing or saving the strokes, per point.
+ */
+@State(Scope.Benchmark)
+public class StrokeModelBenchmark {
+
+    private static final int NUM_EVENTS = 1000;
+
+    @Param({"1", "5"})
+    public int numPointers;
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_EVENTS)
+    public StrokeModel record() {
+        return draw(numPointers);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_EVENTS)
+    public float recordAndRead() {
+        final StrokeModel model = draw(numPointers);
+
+        float sum = 0.0f;
+        for (int i = 0; i < model.size(); i++) {
+            final Stroke stroke = model.get(i);
+            for (int segment = 0; segment < stroke.getNumSegments(); segment++) {
+                for (int j = stroke.getSegmentStart(segment); j < stroke.getSegmentEnd(segment); j++) {
+                    sum += stroke.getX(j) + stroke.getY(j);
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Record events of all pointers moving in circles and touching down again every 100 events.
+     */
+    private static StrokeModel draw(int numPointers) {
+        final StrokeModel model = new StrokeModel();
+        final int movesPerPointer = NUM_EVENTS / numPointers;
+        for (int move = 0; move < movesPerPointer; move++) {
+            for (int pointer = 0; pointer < numPointers; pointer++) {
+                final float x = 500.0f + 100.0f * pointer + 50.0f * (float) Math.cos(move * 0.1);
+                final float y = 800.0f + 50.0f * (float) Math.sin(move * 0.1);
+                if (move % 100 == 0) {
+                    model.pointerDown(pointer, x, y);
+                } else {
+                    model.pointerMove(pointer, x, y);
+                }
+            }
+        }
+        return model;
+    }
+}
@@ -0,0 +1,111 @@
+package mobileapps.aau.at.ab02.animation;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.support.test.runner.AndroidJUnit4;
+import android.text.TextPaint;
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented test checking that exported frames are deterministic and measuring the export throughput.
+ */
+@RunWith(AndroidJUnit4.class)
+public class FrameExporterTest {
+
+    private static final String TAG = "FrameExporterTest";
+
+    private static final int WIDTH = 540;
+    private static final int HEIGHT = 960;
+    private static final int FRAMES_PER_SECOND = 30;
+
+    private FrameExporter exporter;
+    private File directory;
+
+    @Before
+    public void setUp() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            text.append("word").append(i).append(' ');
+        }
+
+        TextPaint textPaint = AnimationView.createTextPaint(36.0f);
+        textPaint.setColor(Color.BLACK);
+        WordStore words = PreparedWords.createWords(text, textPaint);
+
+        Paint.FontMetrics fontMetrics = textPaint.getFontMetrics();
+        WordPositions positions = new WordPositions(words.size());
+        new WordLayout(LineBreaker.Mode.GREEDY).layout(words, true, WIDTH, HEIGHT,
+                Math.round(textPaint.measureText(" ")), fontMetrics.ascent, fontMetrics.descent, 10.0f, positions);
+
+        Timeline timeline = Timeline.staggered(words.size(), 0, 80, 2000, 2000, Easing.ELASTIC_OUT);
+        exporter = new FrameExporter(words, positions, timeline, textPaint, Color.WHITE, WIDTH, HEIGHT);
+
+        directory = new File(System.getProperty("java.io.tmpdir"), "frame_exporter_test");
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void framesOnlyDependOnTheirTimestamp() {
+        Bitmap first = exporter.createBitmap();
+        Bitmap second = exporter.createBitmap();
+
+        // renderer which has drawn other frames before must give the same result as a fresh one
+        FrameExporter.Renderer renderer = exporter.createRenderer();
+        exporter.renderFrame(3000, first, renderer);
+        exporter.renderFrame(700, first, renderer);
+        exporter.renderFrame(700, second, exporter.createRenderer());
+
+        assertTrue(first.sameAs(second));
+    }
+
+    @Test
+    public void parallelExportMatchesSequentialRendering() throws Exception {
+        long start = System.nanoTime();
+        exporter.export(directory, FRAMES_PER_SECOND, new ForkJoinPool(1));
+        long sequentialNanos = System.nanoTime() - start;
+
+        // frames of the parallel export overwrite the sequential ones
+        start = System.nanoTime();
+        int numFrames = exporter.export(directory, FRAMES_PER_SECOND, new ForkJoinPool(4));
+        long parallelNanos = System.nanoTime() - start;
+
+        Log.i(TAG, String.format("%d frames, parallel: %.1f frames/s, sequential: %.1f frames/s",
+                numFrames, numFrames / (parallelNanos / 1e9), numFrames / (sequentialNanos / 1e9)));
+
+        assertEquals(exporter.getNumFrames(FRAMES_PER_SECOND), numFrames);
+        assertEquals(numFrames, directory.listFiles().length);
+
+        // compare some frames of the parallel export with frames rendered on this thread
+        Bitmap expected = exporter.createBitmap();
+        FrameExporter.Renderer renderer = exporter.createRenderer();
+        for (int frame = 0; frame < numFrames; frame += 17) {
+            exporter.renderFrame(frame * 1000L / FRAMES_PER_SECOND, expected, renderer);
+            Bitmap actual = BitmapFactory.decodeFile(
+                    new File(directory, String.format("frame_%05d.png", frame)).getPath());
+            assertTrue("frame " + frame, expected.sameAs(actual));
+            actual.recycle();
+        }
+    }
+}
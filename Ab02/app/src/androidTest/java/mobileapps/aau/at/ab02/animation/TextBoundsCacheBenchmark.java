@@ -0,0 +1,69 @@
+package mobileapps.aau.at.ab02.animation;
+
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.support.test.runner.AndroidJUnit4;
+import android.text.TextPaint;
+import android.util.Log;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented benchmark measuring word layout with and without cached text bounds.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TextBoundsCacheBenchmark {
+
+    private static final String TAG = "TextBoundsCacheBench";
+
+    private static final int NUM_WORDS = 5000;
+    private static final int NUM_DISTINCT_WORDS = 500;
+
+    private final char[][] words = new char[NUM_WORDS][];
+    private TextPaint textPaint;
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < words.length; i++) {
+            words[i] = ("word" + (i % NUM_DISTINCT_WORDS)).toCharArray();
+        }
+
+        textPaint = new TextPaint();
+        textPaint.setFlags(Paint.ANTI_ALIAS_FLAG);
+        textPaint.setTextSize(72.0f);
+
+        TextBoundsCache.getInstance().clear();
+    }
+
+    @Test
+    public void repeatedLayoutIsAnsweredFromCache() {
+
+        long coldNanos = layoutWords();
+        int missesAfterColdRun = TextBoundsCache.getInstance().getMissCount();
+
+        long warmNanos = layoutWords();
+
+        Log.i(TAG, String.format("cold layout: %.2f ms, warm layout: %.2f ms, hits: %d, misses: %d",
+                coldNanos / 1e6, warmNanos / 1e6,
+                TextBoundsCache.getInstance().getHitCount(),
+                TextBoundsCache.getInstance().getMissCount()));
+
+        // each distinct word is measured exactly once
+        assertEquals(NUM_DISTINCT_WORDS, missesAfterColdRun);
+        assertEquals(NUM_DISTINCT_WORDS, TextBoundsCache.getInstance().getMissCount());
+        assertEquals(2 * NUM_WORDS - NUM_DISTINCT_WORDS, TextBoundsCache.getInstance().getHitCount());
+    }
+
+    private long layoutWords() {
+        Rect bounds = new Rect();
+        long start = System.nanoTime();
+        for (char[] word : words) {
+            TextBoundsCache.getInstance().measure(word, 0, word.length, textPaint, bounds);
+        }
+        return System.nanoTime() - start;
+    }
+}
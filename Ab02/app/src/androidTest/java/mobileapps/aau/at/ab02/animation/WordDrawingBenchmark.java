@@ -0,0 +1,112 @@
+package mobileapps.aau.at.ab02.animation;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.support.test.runner.AndroidJUnit4;
+import android.text.TextPaint;
+import android.util.Log;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Instrumented benchmark comparing the frame time of drawing each word from its string,
+ * drawing each word straight from the characters of the {@link WordStore} and copying
+ * the words from the {@link WordAtlas}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class WordDrawingBenchmark {
+
+    private static final String TAG = "WordDrawingBench";
+
+    private static final int NUM_FRAMES = 120;
+
+    private Bitmap bitmap;
+    private Canvas canvas;
+    private TextPaint textPaint;
+
+    @Before
+    public void setUp() {
+        bitmap = Bitmap.createBitmap(1080, 1920, Bitmap.Config.ARGB_8888);
+        canvas = new Canvas(bitmap);
+        textPaint = new TextPaint();
+        textPaint.setFlags(Paint.ANTI_ALIAS_FLAG);
+        textPaint.setTextSize(72.0f);
+    }
+
+    @After
+    public void tearDown() {
+        bitmap.recycle();
+    }
+
+    @Test
+    public void frameTime100Words() {
+        benchmark(100);
+    }
+
+    @Test
+    public void frameTime1000Words() {
+        benchmark(1000);
+    }
+
+    @Test
+    public void frameTime10000Words() {
+        benchmark(10000);
+    }
+
+    private void benchmark(int numWords) {
+
+        String[] strings = new String[numWords];
+        WordStore words = new WordStore();
+        Rect bounds = new Rect();
+        for (int i = 0; i < numWords; i++) {
+            strings[i] = "word" + i;
+            textPaint.getTextBounds(strings[i], 0, strings[i].length(), bounds);
+            words.add(strings[i].toCharArray(), 0, strings[i].length());
+            words.setMeasurements(i, bounds.left, bounds.top, bounds.width(), bounds.height());
+        }
+
+        WordPositions positions = new WordPositions(numWords);
+        for (int i = 0; i < numWords; i++) {
+            positions.setLocation(i, i % 1000, -100, i % 1000, i % 1900);
+        }
+
+        // one word after the other
+        long start = System.nanoTime();
+        for (int frame = 0; frame < NUM_FRAMES; frame++) {
+            positions.update(frame / (float) NUM_FRAMES);
+            for (int i = 0; i < numWords; i++) {
+                canvas.drawText(strings[i], positions.getX(i), positions.getY(i), textPaint);
+            }
+        }
+        long perWordNanos = (System.nanoTime() - start) / NUM_FRAMES;
+
+        // one word after the other from the characters of the word store, as done by the view
+        start = System.nanoTime();
+        for (int frame = 0; frame < NUM_FRAMES; frame++) {
+            positions.update(frame / (float) NUM_FRAMES);
+            for (int i = 0; i < numWords; i++) {
+                canvas.drawText(words.getChars(), words.getWordStart(i), words.getWordLength(i),
+                        positions.getX(i), positions.getY(i), textPaint);
+            }
+        }
+        long storeNanos = (System.nanoTime() - start) / NUM_FRAMES;
+
+        // words copied from the atlas (includes rasterizing the words in the first frame)
+        WordAtlas atlas = new WordAtlas(16 * 1024 * 1024);
+        start = System.nanoTime();
+        for (int frame = 0; frame < NUM_FRAMES; frame++) {
+            positions.update(frame / (float) NUM_FRAMES);
+            atlas.draw(canvas, words, positions, textPaint);
+        }
+        long atlasNanos = (System.nanoTime() - start) / NUM_FRAMES;
+        atlas.recycle();
+
+        Log.i(TAG, String.format("%d words: strings %.3f ms/frame, word store %.3f ms/frame, atlas %.3f ms/frame",
+                numWords, perWordNanos / 1e6, storeNanos / 1e6, atlasNanos / 1e6));
+    }
+}
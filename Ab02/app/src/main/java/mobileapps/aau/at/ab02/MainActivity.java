@@ -1,25 +1,67 @@
 package mobileapps.aau.at.ab02;
 
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.support.v7.app.ActionBar;
 import android.support.v7.app.AppCompatActivity;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.SearchView;
 import android.support.v7.widget.Toolbar;
+import android.util.Log;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
-import android.widget.ListView;
+import android.view.ViewTreeObserver;
+import android.widget.TextView;
+import android.widget.Toast;
 
+import java.io.File;
+import java.io.IOException;
+
+import mobileapps.aau.at.ab02.animation.PreparedWords;
+import mobileapps.aau.at.ab02.animation.TextHandoff;
+import mobileapps.aau.at.ab02.listview.EntryImporter;
+import mobileapps.aau.at.ab02.listview.EntryLog;
 import mobileapps.aau.at.ab02.listview.ListViewAdapter;
 import mobileapps.aau.at.ab02.listview.RowOnClickListener;
 
 public class MainActivity extends AppCompatActivity {
 
+    private static final String TAG = "MainActivity";
+    private static final String ENTRY_LOG = "entries.log";
+    private static final int REQUEST_IMPORT = 1;
+
+    // opened once per process and written in the background, so it is never closed
+    private static EntryLog entryLog;
+
+    private StartupTrace startupTrace;
+    private Toolbar toolbar;
+    private RecyclerView listView;
+
+    // set up after the first frame
+    private ListViewAdapter adapter;
+
+    // kept across configuration changes, attached to the adapter once it is set up
+    private EntryImporter importer;
+
+    // document picked before the adapter was set up, e.g. after the process was restarted
+    private Uri pendingImport;
+
     @Override
     protected void onCreate(final Bundle savedInstanceState) {
+        startupTrace = StartupTrace.start(TAG);
         super.onCreate(savedInstanceState);
+        importer = (EntryImporter) getLastCustomNonConfigurationInstance();
+
+        startupTrace.beginSection("inflate");
         setContentView(R.layout.activity_main);
+        startupTrace.endSection();
 
+        startupTrace.beginSection("toolbar");
         // toolbar should act as the ActionBar
-        Toolbar toolbar = findViewById(R.id.toolbar);
+        toolbar = findViewById(R.id.toolbar);
         setSupportActionBar(toolbar);
 
         // this is required in order to show are own title
@@ -27,20 +69,72 @@ public class MainActivity extends AppCompatActivity {
         if (supportActionBar != null) {
             supportActionBar.setDisplayShowTitleEnabled(false);
         }
+        startupTrace.endSection();
+
+        startupTrace.beginSection("list");
+        listView = findViewById(R.id.listView);
+        listView.setLayoutManager(new LinearLayoutManager(this));
+        startupTrace.endSection();
+
+        // the first frame only shows the empty screen, everything else is set up after it
+        final View decorView = getWindow().getDecorView();
+        decorView.getViewTreeObserver().addOnDrawListener(new ViewTreeObserver.OnDrawListener() {
+            private boolean drawn = false;
+
+            @Override
+            public void onDraw() {
+                if (drawn) {
+                    return;
+                }
+                drawn = true;
+                startupTrace.mark("first draw");
+
+                // listeners must not be removed while drawing
+                final ViewTreeObserver.OnDrawListener listener = this;
+                decorView.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        decorView.getViewTreeObserver().removeOnDrawListener(listener);
+                        onFirstFrame();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Set up the entries, menu and add button, deferred until the first frame was drawn.
+     */
+    private void onFirstFrame() {
+        if (isDestroyed()) {
+            return;
+        }
 
+        startupTrace.beginSection("entries");
         // custom adapter for list view
-        final ListViewAdapter adapter = new ListViewAdapter(this);
+        adapter = new ListViewAdapter(this);
         adapter.setRowOnClickListener(new RowOnClickListener() {
             @Override
             public void onClick(String rowText) {
+                // words are split and measured while the activity is started
+                PreparedWords.prepare(MainActivity.this, rowText);
+
+                // only a key is passed, the text itself is not copied through the binder
                 Intent myIntent = new Intent(MainActivity.this, RenderingActivity.class);
-                myIntent.putExtra("text", rowText); //Optional parameters
+                myIntent.putExtra(TextHandoff.EXTRA_KEY, TextHandoff.put(MainActivity.this, rowText));
                 MainActivity.this.startActivity(myIntent);
             }
         });
-        final ListView listView = findViewById(R.id.listView);
+
+        // rows are kept across process restarts
+        final EntryLog log = getEntryLog();
+        if (log != null) {
+            adapter.setEntryLog(log);
+        }
         listView.setAdapter(adapter);
+        startupTrace.endSection();
 
+        startupTrace.beginSection("secondary UI");
         toolbar.setNavigationIcon(android.R.drawable.btn_plus);
         toolbar.setNavigationOnClickListener(
                 new View.OnClickListener() {
@@ -50,5 +144,146 @@ public class MainActivity extends AppCompatActivity {
                     }
                 }
         );
+
+        // the menu was left out of the first frame
+        invalidateOptionsMenu();
+        startupTrace.endSection();
+
+        if (importer != null) {
+            // started before the activity was recreated, e.g. by rotating the device
+            importer.attach(adapter, createImportListener());
+        }
+        if (pendingImport != null) {
+            startImport(pendingImport);
+            pendingImport = null;
+        }
+
+        // interactive once the frame showing the rows is drawn
+        listView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                listView.getViewTreeObserver().removeOnPreDrawListener(this);
+                startupTrace.mark("interactive");
+                startupTrace.log();
+                reportFullyDrawn();
+                return true;
+            }
+        });
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        if (adapter == null) {
+            return false;
+        }
+
+        getMenuInflater().inflate(R.menu.menu_main, menu);
+
+        // rows are searched while typing, stale queries are cancelled by the adapter
+        SearchView searchView = (SearchView) menu.findItem(R.id.action_search).getActionView();
+        searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                adapter.search(query);
+                return true;
+            }
+
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                adapter.search(newText);
+                return true;
+            }
+        });
+        return true;
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        if (item.getItemId() == R.id.action_import) {
+            Intent intent = new Intent(Intent.ACTION_OPEN_DOCUMENT);
+            intent.addCategory(Intent.CATEGORY_OPENABLE);
+            intent.setType("text/plain");
+            startActivityForResult(intent, REQUEST_IMPORT);
+            return true;
+        }
+        return super.onOptionsItemSelected(item);
+    }
+
+    @Override
+    protected void onActivityResult(int requestCode, int resultCode, Intent data) {
+        if (requestCode == REQUEST_IMPORT && resultCode == RESULT_OK && data != null && data.getData() != null) {
+            if (adapter == null) {
+                pendingImport = data.getData();
+            } else {
+                startImport(data.getData());
+            }
+        } else {
+            super.onActivityResult(requestCode, resultCode, data);
+        }
+    }
+
+    @Override
+    public Object onRetainCustomNonConfigurationInstance() {
+        return importer;
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        // batches must not be added to the adapter of a destroyed activity
+        if (importer != null) {
+            if (isChangingConfigurations()) {
+                importer.detach();
+            } else {
+                importer.cancel();
+            }
+        }
+    }
+
+    private void startImport(Uri uri) {
+        if (importer != null) {
+            importer.cancel();
+        }
+        importer = EntryImporter.start(this, uri, adapter, createImportListener());
+    }
+
+    private EntryImporter.Listener createImportListener() {
+        // progress is shown instead of the title
+        final TextView title = findViewById(R.id.toolbar_title);
+        return new EntryImporter.Listener() {
+            @Override
+            public void onProgress(EntryImporter.Progress progress) {
+                if (progress.getFraction() >= 0) {
+                    title.setText(getString(R.string.import_progress, Math.round(100 * progress.getFraction())));
+                }
+            }
+
+            @Override
+            public void onFinished(EntryImporter.Progress progress) {
+                importer = null;
+                title.setText(R.string.app_name);
+                Toast.makeText(MainActivity.this, getString(R.string.import_finished,
+                        progress.getNumEntries(), progress.getNumSkippedLines()), Toast.LENGTH_LONG).show();
+            }
+
+            @Override
+            public void onError(IOException e) {
+                importer = null;
+                title.setText(R.string.app_name);
+                Toast.makeText(MainActivity.this, getString(R.string.import_failed, e.getMessage()),
+                        Toast.LENGTH_LONG).show();
+            }
+        };
+    }
+
+    private EntryLog getEntryLog() {
+        if (entryLog == null) {
+            try {
+                entryLog = EntryLog.open(new File(getFilesDir(), ENTRY_LOG));
+            } catch (IOException e) {
+                Log.e(TAG, "cannot open entry log, rows are not kept", e);
+            }
+        }
+        return entryLog;
     }
 }
@@ -3,6 +3,8 @@ package mobileapps.aau.at.ab02;
 import android.os.Bundle;
 import android.support.v7.app.AppCompatActivity;
 
+import mobileapps.aau.at.ab02.animation.TextHandoff;
+
 public class RenderingActivity extends AppCompatActivity {
 
     @Override
@@ -10,4 +12,15 @@ public class RenderingActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_rendering);
     }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+
+        // text is still needed if the activity is only recreated
+        String key = getIntent().getStringExtra(TextHandoff.EXTRA_KEY);
+        if (isFinishing() && key != null) {
+            TextHandoff.release(this, key);
+        }
+    }
 }
@@ -0,0 +1,157 @@
+package mobileapps.aau.at.ab02;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+
+import java.util.Locale;
+
+/**
+ * Trace sections and milestones of starting an activity.
+ *
+ * <p>
+ *     Sections are passed to {@link Trace}, so they show up in systrace and Perfetto captures
+ *     of the app, and their durations are recorded for a summary logged once the activity is
+ *     interactive. Milestones, e.g. the first draw, are recorded as time since the creation
+ *     of the activity and, for the first activity of the process, since the process started.
+ * </p>
+ *
+ * <p>
+ *     All methods must be called on the UI thread, sections must be nested properly.
+ * </p>
+ */
+final class StartupTrace {
+
+    static final int MAX_SECTIONS = 16;
+    static final int MAX_MILESTONES = 4;
+
+    // only the first activity of a process is started cold
+    private static boolean processStarted = false;
+
+    private final String tag;
+    private final long createUptimeMillis;
+    private final long processStartUptimeMillis;
+
+    private final String[] sectionNames = new String[MAX_SECTIONS];
+    private final long[] sectionNanos = new long[MAX_SECTIONS];
+    private int numSections = 0;
+
+    // sections begun but not ended yet
+    private final int[] openSections = new int[MAX_SECTIONS];
+    private int numOpenSections = 0;
+
+    private final String[] milestoneNames = new String[MAX_MILESTONES];
+    private final long[] milestoneUptimeMillis = new long[MAX_MILESTONES];
+    private int numMilestones = 0;
+
+    /**
+     * @param tag                      Tag of the logged summary.
+     * @param createUptimeMillis       Uptime at the creation of the activity.
+     * @param processStartUptimeMillis Uptime at the start of the process or -1 if the process
+     *                                 was running before.
+     */
+    StartupTrace(String tag, long createUptimeMillis, long processStartUptimeMillis) {
+        this.tag = tag;
+        this.createUptimeMillis = createUptimeMillis;
+        this.processStartUptimeMillis = processStartUptimeMillis;
+    }
+
+    /**
+     * Start tracing the creation of an activity, call at the beginning of {@code onCreate}.
+     */
+    static StartupTrace start(String tag) {
+        final long processStart = processStarted ? -1 : Process.getStartUptimeMillis();
+        processStarted = true;
+        return new StartupTrace(tag, SystemClock.uptimeMillis(), processStart);
+    }
+
+    /**
+     * Begin a section, which ends with the next call of {@link #endSection()}.
+     *
+     * @param name Name of the section, shown in traces and the summary.
+     */
+    void beginSection(String name) {
+
+        if (numSections == MAX_SECTIONS) {
+            throw new IllegalStateException("more than " + MAX_SECTIONS + " sections");
+        }
+
+        Trace.beginSection(name);
+        sectionNames[numSections] = name;
+        sectionNanos[numSections] = System.nanoTime();
+        openSections[numOpenSections++] = numSections++;
+    }
+
+    /**
+     * End the section begun last.
+     */
+    void endSection() {
+
+        if (numOpenSections == 0) {
+            throw new IllegalStateException("no section begun");
+        }
+
+        final int section = openSections[--numOpenSections];
+        sectionNanos[section] = System.nanoTime() - sectionNanos[section];
+        Trace.endSection();
+    }
+
+    /**
+     * Record a milestone at the current time, milestones reached before are ignored.
+     */
+    void mark(String name) {
+        for (int i = 0; i < numMilestones; i++) {
+            if (milestoneNames[i].equals(name)) {
+                return;
+            }
+        }
+
+        if (numMilestones == MAX_MILESTONES) {
+            throw new IllegalStateException("more than " + MAX_MILESTONES + " milestones");
+        }
+
+        milestoneNames[numMilestones] = name;
+        milestoneUptimeMillis[numMilestones] = SystemClock.uptimeMillis();
+        numMilestones++;
+    }
+
+    /**
+     * Log the durations of all ended sections and the times of all milestones.
+     */
+    void log() {
+        Log.i(tag, toString());
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder summary = new StringBuilder("startup:");
+        for (int i = 0; i < numSections; i++) {
+            // sections still open have no duration yet
+            if (isOpen(i)) {
+                continue;
+            }
+            summary.append(String.format(Locale.US, " %s %.1f ms,", sectionNames[i], sectionNanos[i] / 1e6));
+        }
+
+        for (int i = 0; i < numMilestones; i++) {
+            summary.append(' ').append(milestoneNames[i]).append(" +")
+                    .append(milestoneUptimeMillis[i] - createUptimeMillis).append(" ms");
+            if (processStartUptimeMillis >= 0) {
+                summary.append(" (process +")
+                        .append(milestoneUptimeMillis[i] - processStartUptimeMillis).append(" ms)");
+            }
+            summary.append(i < numMilestones - 1 ? "," : "");
+        }
+        return summary.toString();
+    }
+
+    private boolean isOpen(int section) {
+        for (int i = 0; i < numOpenSections; i++) {
+            if (openSections[i] == section) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
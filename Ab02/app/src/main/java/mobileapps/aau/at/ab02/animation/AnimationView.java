@@ -1,7 +1,5 @@
 package mobileapps.aau.at.ab02.animation;
 
-import android.animation.AnimatorSet;
-import android.animation.ValueAnimator;
 import android.app.Activity;
 import android.content.Context;
 import android.content.Intent;
@@ -10,13 +8,20 @@ import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Rect;
+import android.os.Parcel;
+import android.os.Parcelable;
 import android.text.TextPaint;
 import android.util.AttributeSet;
+import android.util.Log;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
 import android.view.View;
+import android.widget.OverScroller;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import mobileapps.aau.at.ab02.R;
 
@@ -25,11 +30,20 @@ import mobileapps.aau.at.ab02.R;
  */
 public class AnimationView extends View {
 
+    private static final String TAG = "AnimationView";
+
     private static final int VERTICAL_SPACE_BETWEEN_WORDS = 10;
 
     private static final long DELAY_MS = 500; // 500 milliseconds delay until animation starts
     private static final long ANIMATION_LENGTH = 2000; // 2sec animation time
 
+    private static final int DEFAULT_WORD_CACHE_SIZE_KB = 4096;
+
+    // texts with more words are laid out on a background thread
+    private static final int BACKGROUND_LAYOUT_THRESHOLD = 5000;
+
+    private static final ExecutorService LAYOUT_EXECUTOR = Executors.newSingleThreadExecutor();
+
     // paint object for drawing the text
     TextPaint textPaint;
 
@@ -37,14 +51,100 @@ public class AnimationView extends View {
     private int bgColor = Color.WHITE;
     private int textFgColor = Color.BLACK;
     private float textDimension = 0;
+    private Easing easing = Easing.SINE_IN_OUT;
+    private boolean wordCacheEnabled = false;
+    private int wordCacheSize = DEFAULT_WORD_CACHE_SIZE_KB;
+    private int wordStagger = 0;
+    private LineBreaker.Mode lineBreaking = LineBreaker.Mode.GREEDY;
+
+    // vertical space between words, scaled by the display density
+    private float wordSpacing = 0;
 
     // other properties
-    private List<AnimatableWord> words;
+    private CharSequence text;
+    private WordStore words;
+    private WordPositions wordPositions;
+    private WordLayout wordLayout;
+    private boolean wordsRemeasured = true;
     private boolean animationRunning = false;
 
+    // layout of the words, which might be computed in the background
+    private boolean layoutValid = false;
+    private int layoutGeneration = 0;
+
+    // timeline of all words, driven by a single frame callback
+    private Timeline timeline;
+    private long animationDuration = 0;
+    private long animationStartNanos = -1;
+    private long animationElapsed = 0;
+
+    // progress restored after a configuration change, -1 if the animation starts from the beginning
+    private long restoredElapsed = -1;
+    private long animationElapsedOffset = 0;
+
+    // word which was at the top before a configuration change, -1 if none
+    private int restoredTopWord = -1;
+
+    // time the words were retained by the previous view, -1 if the view was not recreated
+    private long recreationStartNanos = -1;
+
+    // time the words were requested by tapping a row, -1 if they were not prepared
+    private long startRequestNanos = -1;
+
+    // frame statistics of the animation, only recorded if enabled
+    private boolean frameStatsEnabled = false;
+    private FrameStats frameStats;
+
+    // font metrics and bottom of the last line of the current layout
+    private float fontAscent = 0;
+    private float fontDescent = 0;
+    private float contentBottom = 0;
+
+    // words which might be visible in the current frame
+    private int firstVisibleWord = 0;
+    private int endVisibleWord = 0;
+
+    // scrolling of content higher than the view
+    private OverScroller scroller;
+    private GestureDetector gestureDetector;
+
+    // atlas with rasterized words, only used if the word cache is enabled
+    private WordAtlas wordAtlas;
+
     private final Rect clippingRect = new Rect();
 
-    AnimatorSet animatorSet;
+    private final Choreographer.FrameCallback frameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (animationStartNanos < 0) {
+                animationStartNanos = frameTimeNanos;
+                if (frameStatsEnabled) {
+                    startFrameStats();
+                }
+                if (startRequestNanos >= 0) {
+                    Log.i(TAG, String.format("tap to first animated frame: %.1f ms",
+                            (System.nanoTime() - startRequestNanos) / 1e6));
+                    startRequestNanos = -1;
+                }
+            }
+            animationElapsed = animationElapsedOffset + (frameTimeNanos - animationStartNanos) / 1000000L;
+
+            if (frameStats != null) {
+                frameStats.onFrame(frameTimeNanos);
+            }
+
+            // invalidate the view and therefore force redraw, the visible words are updated when drawn
+            invalidate();
+
+            if (animationElapsed < animationDuration) {
+                Choreographer.getInstance().postFrameCallback(this);
+            } else if (frameStats != null && frameStats.isRecording()) {
+                // last frame is still drawn, but not recorded
+                frameStats.stop();
+                Log.i(TAG, "animation frame stats: " + frameStats);
+            }
+        }
+    };
 
     /**
      * Simple constructor to use when creating a view from code.
@@ -113,6 +213,7 @@ public class AnimationView extends View {
         initAttributes(attrs, defStyle);
         initPaintObjects();
         initWords(context);
+        initScrolling(context);
     }
 
     /**
@@ -133,7 +234,15 @@ public class AnimationView extends View {
         bgColor = a.getColor(R.styleable.AnimationView_bgColor, bgColor);
         textFgColor = a.getColor(R.styleable.AnimationView_textFgColor, textFgColor);
         textDimension = a.getDimension(R.styleable.AnimationView_textDimension,
-                28.0f * getResources().getDisplayMetrics().scaledDensity);
+                getResources().getDimension(R.dimen.animation_text_size));
+        easing = Easing.fromAttributeValue(a.getInt(R.styleable.AnimationView_easing, easing.ordinal()), easing);
+        wordCacheEnabled = a.getBoolean(R.styleable.AnimationView_wordCache, wordCacheEnabled);
+        wordCacheSize = a.getInt(R.styleable.AnimationView_wordCacheSize, wordCacheSize);
+        wordStagger = a.getInt(R.styleable.AnimationView_wordStagger, wordStagger);
+        frameStatsEnabled = a.getBoolean(R.styleable.AnimationView_frameStats, frameStatsEnabled);
+        lineBreaking = LineBreaker.Mode.values()[
+                a.getInt(R.styleable.AnimationView_lineBreaking, lineBreaking.ordinal())];
+        wordSpacing = VERTICAL_SPACE_BETWEEN_WORDS * getResources().getDisplayMetrics().scaledDensity;
 
         // must be recycled
         a.recycle();
@@ -146,14 +255,46 @@ public class AnimationView extends View {
      */
     private void initWords(Context context) {
 
+        // large texts are handed over by key, short ones might still be passed directly
         Intent intent = ((Activity)context).getIntent();
-        String text = intent.getStringExtra("text");
+        String key = intent.getStringExtra(TextHandoff.EXTRA_KEY);
+        text = key != null ? TextHandoff.get(context, key) : intent.getStringExtra("text");
+        if (text == null) {
+            text = "";
+        }
 
-        List<String> words = splitWords(text);
-        this.words = new ArrayList<>(words.size());
-        for (String word : words) {
-            this.words.add(new AnimatableWord(word, textPaint));
+        // words of the previous view are reused after a configuration change
+        RetainedWords.Entry retained = RetainedWords.getInstance().take(text, textDimension);
+        if (retained != null) {
+            words = retained.words;
+            wordLayout = retained.layout;
+            wordsRemeasured = false;
+            recreationStartNanos = retained.retainedNanos;
+        } else {
+            // words might have been prepared in the background already
+            PreparedWords.Entry prepared = PreparedWords.take(text, textDimension);
+            words = prepared != null ? prepared.getWords() : null;
+            if (words != null) {
+                startRequestNanos = prepared.requestNanos;
+            } else {
+                words = PreparedWords.createWords(text, textPaint);
+            }
+            wordLayout = new WordLayout(lineBreaking);
         }
+
+        wordPositions = new WordPositions(words.size());
+    }
+
+    /**
+     * Measure all words using the current text paint.
+     */
+    private void measureWords() {
+
+        // bounds are shared across all views using the same paint configuration
+        TextBoundsCache.getInstance().measure(words, textPaint);
+
+        // lines must be broken again with the new widths
+        wordsRemeasured = true;
     }
 
     /**
@@ -162,74 +303,195 @@ public class AnimationView extends View {
     private void initPaintObjects() {
 
         // paint object used for drawing the text
-        textPaint = new TextPaint();
+        textPaint = createTextPaint(textDimension);
+        textPaint.setColor(textFgColor);
+
+        if (wordCacheEnabled) {
+            wordAtlas = new WordAtlas(wordCacheSize * 1024);
+        }
+    }
+
+    /**
+     * Create the paint object used for measuring and drawing the words.
+     *
+     * @param textDimension Text size in pixels.
+     */
+    static TextPaint createTextPaint(float textDimension) {
+        TextPaint textPaint = new TextPaint();
         textPaint.setFlags(Paint.ANTI_ALIAS_FLAG);
         textPaint.setTextAlign(Paint.Align.LEFT);
         textPaint.setTextSize(textDimension);
-        textPaint.setColor(textFgColor);
+        return textPaint;
     }
 
-    private void updateWordLocations() {
+    /**
+     * Init scrolling by dragging and flinging.
+     *
+     * @param context
+     */
+    private void initScrolling(Context context) {
+
+        scroller = new OverScroller(context);
+        gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(MotionEvent e) {
+                scroller.forceFinished(true);
+                // only interested in gestures if there is something to scroll
+                return getMaxScrollY() > 0;
+            }
 
-        // update locations of words
+            @Override
+            public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
+                scrollTo(0, Math.max(0, Math.min(getMaxScrollY(), getScrollY() + Math.round(distanceY))));
+                return true;
+            }
 
-        // first compute the total height of the words
-        int totalHeight = 0;
-        for (int i = 0; i < words.size(); i++) {
-            totalHeight += words.get(i).getBounds().height();
-            if (i < words.size() - 1) {
-                // add space between words
-                totalHeight += VERTICAL_SPACE_BETWEEN_WORDS * getResources().getDisplayMetrics().scaledDensity;
+            @Override
+            public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
+                scroller.fling(0, getScrollY(), 0, -Math.round(velocityY), 0, 0, 0, getMaxScrollY());
+                postInvalidateOnAnimation();
+                return true;
             }
+        });
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        return gestureDetector.onTouchEvent(event) || super.onTouchEvent(event);
+    }
+
+    @Override
+    public void computeScroll() {
+        if (scroller.computeScrollOffset()) {
+            scrollTo(0, scroller.getCurrY());
+            postInvalidateOnAnimation();
         }
+    }
 
-        int contentHeight = getHeight() - getPaddingTop() - getPaddingBottom();
-        int contentWidth = getWidth() - getPaddingLeft() - getPaddingRight();
+    @Override
+    protected int computeVerticalScrollRange() {
+        return Math.max(getContentHeight(), (int) Math.ceil(contentBottom));
+    }
 
-        int y = (contentHeight - totalHeight) / 2;
+    @Override
+    protected int computeVerticalScrollExtent() {
+        return getContentHeight();
+    }
 
-        // go over the words again and adjust locations
-        for (int i = 0; i < words.size(); i++) {
-            final AnimatableWord word = words.get(i);
-            final Rect bounds = word.getBounds();
-            final int x = (contentWidth - bounds.width()) / 2;
+    @Override
+    protected int computeVerticalScrollOffset() {
+        return getScrollY();
+    }
 
-            Rect initialLocation = new Rect(x, -bounds.height(), x + bounds.width(), 0);
-            Rect finalLocation = new Rect(initialLocation.left, y, initialLocation.right, y + bounds.height());
-            word.setInitialLocation(initialLocation);
-            word.setFinalLocation(finalLocation);
+    private int getContentHeight() {
+        return getHeight() - getPaddingTop() - getPaddingBottom();
+    }
 
-            // increase x position
-            y += bounds.height();
+    private int getMaxScrollY() {
+        return Math.max(0, (int) Math.ceil(contentBottom) - getContentHeight());
+    }
 
-            if (i < words.size() - 1) {
-                // add space between words
-                y += VERTICAL_SPACE_BETWEEN_WORDS * getResources().getDisplayMetrics().scaledDensity;
-            }
-        }
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+
+        // layout only depends on the size, therefore it is not done while drawing
+        updateWordLocations();
     }
 
-    private void initAnimation() {
-        animatorSet = new AnimatorSet();
-        ValueAnimator valueAnimator = ValueAnimator.ofFloat(0, 1);
-        valueAnimator.setEvaluator(new LinearEaseOutEvaluator(ANIMATION_LENGTH));
-        valueAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+    /**
+     * Compute the locations of all words.
+     *
+     * <p>
+     *     Large texts are laid out from a copy of the words on a background thread, the result
+     *     is applied on the UI thread, unless a newer layout was requested meanwhile.
+     * </p>
+     */
+    private void updateWordLocations() {
+
+        final int contentWidth = getWidth() - getPaddingLeft() - getPaddingRight();
+        final int contentHeight = getContentHeight();
+        final float spacing = wordSpacing;
+        final int spaceWidth = Math.round(textPaint.measureText(" "));
+        final Paint.FontMetrics fontMetrics = textPaint.getFontMetrics();
+        final boolean remeasured = wordsRemeasured;
+        final int generation = ++layoutGeneration;
+        wordsRemeasured = false;
+        fontAscent = fontMetrics.ascent;
+        fontDescent = fontMetrics.descent;
+
+        if (words.size() < BACKGROUND_LAYOUT_THRESHOLD) {
+            wordLayout.layout(words, remeasured, contentWidth, contentHeight, spaceWidth,
+                    fontMetrics.ascent, fontMetrics.descent, spacing, wordPositions);
+            onWordLocationsUpdated();
+            return;
+        }
+
+        // the words might be measured again on the UI thread while the layout is running
+        final WordStore measuredWords = words.copy();
+        final WordPositions positions = new WordPositions(words.size());
+        LAYOUT_EXECUTOR.execute(new Runnable() {
             @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                float animatedValue = (float) animation.getAnimatedValue();
-                for (AnimatableWord word : words) {
-                    // update current locations
-                    word.onUpdateAnimation(animatedValue);
-                }
-                // invalidate the view and therefore force redraw
-                invalidate();
+            public void run() {
+                // layouts are run one after the other, so the line breaks are always based on the previous one
+                wordLayout.layout(measuredWords, remeasured, contentWidth, contentHeight, spaceWidth,
+                        fontMetrics.ascent, fontMetrics.descent, spacing, positions);
+                post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != layoutGeneration) {
+                            return; // outdated layout
+                        }
+                        wordPositions = positions;
+                        onWordLocationsUpdated();
+                    }
+                });
             }
         });
-        animatorSet.playTogether(valueAnimator);
-        animatorSet.setDuration(ANIMATION_LENGTH);
-        animatorSet.setStartDelay(DELAY_MS);
-        animatorSet.start();
+    }
+
+    /**
+     * Called on the UI thread when new word locations are available.
+     */
+    private void onWordLocationsUpdated() {
+
+        layoutValid = true;
+        contentBottom = words.size() > 0 ? wordPositions.getFinalY(words.size() - 1) + fontDescent : 0;
+        if (restoredTopWord >= 0 && restoredTopWord < words.size()) {
+            // same word at the top as before the configuration change
+            scrollTo(0, Math.round(wordPositions.getFinalY(restoredTopWord) + fontAscent));
+            restoredTopWord = -1;
+        }
+        if (getScrollY() > getMaxScrollY()) {
+            scrollTo(0, getMaxScrollY());
+        }
+
+        if (!animationRunning) {
+            initAnimation();
+        }
+        // otherwise the animation continues where it currently is, visible words are updated when drawn
+
+        invalidate();
+    }
+
+    private void initAnimation() {
+        // the stagger is reduced for long texts, so that the last word starts within the animation length
+        timeline = Timeline.staggered(words.size(), 0, wordStagger, ANIMATION_LENGTH, ANIMATION_LENGTH, easing);
+        animationDuration = timeline.getTotalDuration();
         animationRunning = true;
+
+        if (restoredElapsed < 0) {
+            Choreographer.getInstance().postFrameCallbackDelayed(frameCallback, DELAY_MS);
+            return;
+        }
+
+        // continue where the animation was before the configuration change
+        animationElapsed = restoredElapsed;
+        animationElapsedOffset = restoredElapsed;
+        restoredElapsed = -1;
+        if (animationElapsed < animationDuration) {
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+        }
     }
 
     @Override
@@ -239,45 +501,291 @@ public class AnimationView extends View {
         // fill entire canvas with background color
         canvas.drawColor(bgColor);
 
-        if (!animationRunning) {
-            updateWordLocations();
-            initAnimation();
-            return; // no drawing for the first frame, just update the animation
+        if (!layoutValid) {
+            return; // layout is still computed in the background
         }
 
         // save canvas state
         canvas.save();
 
+        // canvas is already translated by the scroll position
         clippingRect.left = getPaddingLeft();
-        clippingRect.top = getPaddingTop();
+        clippingRect.top = getScrollY() + getPaddingTop();
         clippingRect.right = getWidth() - getPaddingRight();
-        clippingRect.bottom = getHeight() - getPaddingBottom();
+        clippingRect.bottom = getScrollY() + getHeight() - getPaddingBottom();
+        canvas.clipRect(clippingRect);
+        canvas.translate(getPaddingLeft(), getPaddingTop());
+
+        // no time is taken, unless frame statistics are enabled
+        final boolean recordFrame = frameStats != null && frameStats.isRecording();
+        long sectionStartNanos = recordFrame ? System.nanoTime() : 0;
+
+        // only the words which might be visible are updated and drawn
+        updateVisibleWords();
+        timeline.update(animationElapsed, wordPositions, firstVisibleWord, endVisibleWord);
+
+        if (recordFrame) {
+            final long now = System.nanoTime();
+            frameStats.recordUpdate(now - sectionStartNanos);
+            sectionStartNanos = now;
+        }
 
-        for (AnimatableWord word : words) {
-            word.draw(canvas);
+        if (wordAtlas != null) {
+            // copy pre-rasterized words
+            wordAtlas.draw(canvas, words, wordPositions, textPaint, firstVisibleWord, endVisibleWord);
+        } else {
+            // each word is drawn as a whole, so that it is shaped like any other text
+            final char[] chars = words.getChars();
+            for (int i = firstVisibleWord; i < endVisibleWord; i++) {
+                canvas.drawText(chars, words.getWordStart(i), words.getWordLength(i),
+                        wordPositions.getX(i), wordPositions.getY(i), textPaint);
+            }
+        }
+
+        if (recordFrame) {
+            // with hardware acceleration this is the time for recording the drawing commands
+            frameStats.recordDraw(System.nanoTime() - sectionStartNanos);
         }
 
         // restore previously saved canvas state
         canvas.restore();
+
+        if (recreationStartNanos >= 0) {
+            Log.i(TAG, String.format("configuration change to first frame: %.1f ms",
+                    (System.nanoTime() - recreationStartNanos) / 1e6));
+            recreationStartNanos = -1;
+        }
     }
 
-    private static List<String> splitWords(String s) {
+    /**
+     * Find the words which might intersect the visible part of the content.
+     *
+     * <p>
+     *     Final locations are sorted by lines, therefore the range is found by a binary search.
+     *     While the animation is running a word might be up to one content height above its
+     *     final location (plus some overshoot of the easing curve), afterwards only the words
+     *     whose final location is visible are taken.
+     * </p>
+     */
+    private void updateVisibleWords() {
+
+        final int contentHeight = getContentHeight();
+        final boolean moving = animationElapsed < animationDuration;
+        final float overshoot = moving ? contentHeight / 2.0f : 0.0f;
+        final float drop = moving ? contentHeight : 0.0f;
+
+        final float top = getScrollY() - fontDescent - overshoot;
+        final float bottom = getScrollY() + contentHeight - fontAscent + drop + overshoot;
 
-        if (s == null || s.isEmpty()) {
-            // should not happen at all
-            return Collections.emptyList();
+        firstVisibleWord = wordPositions.findFirstWithFinalY(top);
+        endVisibleWord = wordPositions.findFirstWithFinalY(Math.nextUp(bottom));
+    }
+
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState state = new SavedState(super.onSaveInstanceState());
+
+        if (timeline != null) {
+            // set to the restored progress when initialized, even if no frame follows
+            state.animationElapsed = animationElapsed;
+        } else {
+            // restored, but not laid out yet, -1 if not restored either
+            state.animationElapsed = restoredElapsed;
         }
 
-        String[] words = s.split("\\s+");
-        List<String> result = new ArrayList<>(words.length);
-        for (String word : words) {
-            if (word.trim().isEmpty()) {
-                continue;
-            }
+        if (layoutValid) {
+            state.topWord = wordPositions.findFirstWithFinalY(getScrollY() - fontAscent);
+        } else {
+            state.topWord = restoredTopWord;
+        }
+
+        return state;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+
+        SavedState savedState = (SavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+
+        // applied as soon as the words are laid out
+        restoredElapsed = savedState.animationElapsed;
+        restoredTopWord = savedState.topWord;
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+
+        Choreographer.getInstance().removeFrameCallback(frameCallback);
+        scroller.forceFinished(true);
 
-            result.add(word.trim());
+        if (getContext() instanceof Activity && ((Activity) getContext()).isChangingConfigurations()) {
+            // the view of the recreated activity takes over the measured words
+            RetainedWords.getInstance().retain(text, textDimension, words, wordLayout);
         }
 
-        return result;
+        if (wordAtlas != null) {
+            // release the bitmaps, they are created again if needed
+            wordAtlas.recycle();
+        }
+    }
+
+    /**
+     * Start recording frame statistics of the animation.
+     */
+    private void startFrameStats() {
+        final Display display = getDisplay();
+        final float refreshRate = display != null ? display.getRefreshRate() : 60.0f;
+        frameStats = new FrameStats(FrameStats.DEFAULT_CAPACITY, Math.round(1e9 / refreshRate));
+        frameStats.start();
+    }
+
+    /**
+     * Enable or disable recording frame statistics.
+     *
+     * <p>
+     *     Takes effect when the animation starts. At the end of the animation the
+     *     statistics are written to the log.
+     * </p>
+     *
+     * @param frameStatsEnabled <code>true</code> to record frame statistics.
+     */
+    public void setFrameStatsEnabled(boolean frameStatsEnabled) {
+        this.frameStatsEnabled = frameStatsEnabled;
+        if (!frameStatsEnabled) {
+            frameStats = null;
+        }
+    }
+
+    /**
+     * Indicates whether frame statistics are recorded.
+     */
+    public boolean isFrameStatsEnabled() {
+        return frameStatsEnabled;
+    }
+
+    /**
+     * Get the frame statistics of the current or last animation.
+     *
+     * @return Frame statistics or <code>null</code> if they are disabled or no animation was started yet.
+     */
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
+
+    /**
+     * Create an exporter rendering the animation of the current layout into an image sequence.
+     *
+     * <p>
+     *     The exporter works on a copy of the words and their layout, so that it can be used
+     *     on a background thread. Frames have the size of the content area of this view.
+     * </p>
+     *
+     * @throws IllegalStateException if the words are not laid out yet.
+     */
+    public FrameExporter createFrameExporter() {
+
+        if (!layoutValid) {
+            throw new IllegalStateException("words are not laid out yet");
+        }
+
+        return new FrameExporter(words.copy(), wordPositions.copy(), timeline, new TextPaint(textPaint),
+                bgColor, getWidth() - getPaddingLeft() - getPaddingRight(), getContentHeight());
+    }
+
+    /**
+     * Set the text size.
+     *
+     * @param textDimension Text size in pixels.
+     */
+    public void setTextDimension(float textDimension) {
+        this.textDimension = textDimension;
+        textPaint.setTextSize(textDimension);
+
+        // words must be measured and laid out again, the atlas detects the changed paint itself
+        measureWords();
+        if (isLaidOut()) {
+            updateWordLocations();
+        }
+
+        invalidate();
+    }
+
+    /**
+     * Get the text size in pixels.
+     */
+    public float getTextDimension() {
+        return textDimension;
+    }
+
+    /**
+     * Set the text color.
+     *
+     * @param textFgColor Text color.
+     */
+    public void setTextFgColor(int textFgColor) {
+        this.textFgColor = textFgColor;
+        // the atlas only stores the coverage, therefore just the paint needs to be updated
+        textPaint.setColor(textFgColor);
+
+        invalidate();
+    }
+
+    /**
+     * Get the text color.
+     */
+    public int getTextFgColor() {
+        return textFgColor;
+    }
+
+    /**
+     * Animation progress and scroll position saved across configuration changes.
+     *
+     * <p>
+     *     The measured words are too large for a parcel, they are handed over by {@link RetainedWords}.
+     * </p>
+     */
+    static class SavedState extends BaseSavedState {
+
+        private long animationElapsed = -1;
+        private int topWord = -1;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+            super(in);
+            animationElapsed = in.readLong();
+            topWord = in.readInt();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeLong(animationElapsed);
+            out.writeInt(topWord);
+        }
+
+        long getAnimationElapsed() {
+            return animationElapsed;
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
     }
 }
@@ -0,0 +1,222 @@
+package mobileapps.aau.at.ab02.animation;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.text.TextPaint;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Renders the word animation of an {@link AnimationView} into an image sequence.
+ *
+ * <p>
+ *     The exporter works on a snapshot of the view's words, layout and timeline, so it can
+ *     run on any thread while the view keeps animating. Each frame only depends on its
+ *     timestamp, therefore frames are rendered in parallel: the frame range is split with
+ *     fork/join and each leaf renders its frames one after the other into its own bitmap,
+ *     writing each frame to disk as soon as it is finished.
+ * </p>
+ *
+ * @see AnimationView#createFrameExporter()
+ */
+public final class FrameExporter {
+
+    // frames rendered by a single task, also the granularity of the work stealing
+    private static final int FRAMES_PER_TASK = 8;
+
+    private final WordStore words;
+    private final WordPositions layout;
+    private final Timeline timeline;
+    private final TextPaint textPaint;
+    private final int bgColor;
+    private final int width;
+    private final int height;
+
+    FrameExporter(WordStore words, WordPositions layout, Timeline timeline, TextPaint textPaint,
+                  int bgColor, int width, int height) {
+
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("width <= 0 || height <= 0");
+        }
+
+        this.words = words;
+        this.layout = layout;
+        this.timeline = timeline;
+        this.textPaint = textPaint;
+        this.bgColor = bgColor;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Get number of frames of the complete animation.
+     *
+     * @param framesPerSecond Frame rate of the image sequence.
+     */
+    public int getNumFrames(int framesPerSecond) {
+
+        if (framesPerSecond <= 0) {
+            throw new IllegalArgumentException("framesPerSecond <= 0");
+        }
+
+        // first frame at time 0, last one shows the final layout
+        return (int) ((timeline.getTotalDuration() * framesPerSecond + 999) / 1000) + 1;
+    }
+
+    /**
+     * Render all frames and write them as PNG files <code>frame_00000.png</code>, ... to a directory.
+     *
+     * <p>
+     *     Blocks until all frames are written, must not be called on the UI thread.
+     * </p>
+     *
+     * @param directory       Directory receiving the frames.
+     * @param framesPerSecond Frame rate of the image sequence.
+     * @return Number of frames written.
+     * @throws IOException if a frame cannot be written.
+     */
+    public int export(File directory, int framesPerSecond) throws IOException {
+        return export(directory, framesPerSecond, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Render all frames using the given pool.
+     *
+     * @see #export(File, int)
+     */
+    int export(File directory, int framesPerSecond, ForkJoinPool pool) throws IOException {
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("cannot create " + directory);
+        }
+
+        final int numFrames = getNumFrames(framesPerSecond);
+        ExportTask task = new ExportTask(directory, framesPerSecond, 0, numFrames);
+        pool.invoke(task);
+
+        if (task.error != null) {
+            throw task.error;
+        }
+        return numFrames;
+    }
+
+    /**
+     * Render a single frame.
+     *
+     * @param elapsed   Time since the start of the animation in milliseconds.
+     * @param bitmap    Bitmap of the exporter's size receiving the frame.
+     * @param renderer  Per thread rendering state.
+     */
+    void renderFrame(long elapsed, Bitmap bitmap, Renderer renderer) {
+
+        timeline.update(elapsed, renderer.positions, renderer.firstWord, renderer.endWord);
+
+        renderer.canvas.setBitmap(bitmap);
+        renderer.canvas.drawColor(bgColor);
+        final char[] chars = words.getChars();
+        for (int i = renderer.firstWord; i < renderer.endWord; i++) {
+            renderer.canvas.drawText(chars, words.getWordStart(i), words.getWordLength(i),
+                    renderer.positions.getX(i), renderer.positions.getY(i), renderer.textPaint);
+        }
+    }
+
+    /**
+     * Create the rendering state for one thread.
+     */
+    Renderer createRenderer() {
+        return new Renderer();
+    }
+
+    Bitmap createBitmap() {
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+
+    private void writeFrame(Bitmap bitmap, File file) throws IOException {
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            if (!bitmap.compress(Bitmap.CompressFormat.PNG, 100, out)) {
+                throw new IOException("cannot compress " + file);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Positions, paint and canvas used by a single thread.
+     */
+    final class Renderer {
+
+        private final WordPositions positions = layout.copy();
+        private final TextPaint textPaint = new TextPaint(FrameExporter.this.textPaint);
+        private final Canvas canvas = new Canvas();
+
+        // words which might be visible in any frame, all others stay outside
+        private final int firstWord;
+        private final int endWord;
+
+        private Renderer() {
+            // words drop in from one height above their final location, plus overshoot of the easing curve
+            final float overshoot = height / 2.0f;
+            firstWord = positions.findFirstWithFinalY(-textPaint.descent() - overshoot);
+            endWord = positions.findFirstWithFinalY(Math.nextUp(2 * height - textPaint.ascent() + overshoot));
+        }
+    }
+
+    /**
+     * Renders a range of frames, splitting it while it is large.
+     */
+    private final class ExportTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final File directory;
+        private final int framesPerSecond;
+        private final int from;
+        private final int to;
+
+        // first error of this task or one of its sub tasks
+        private IOException error;
+
+        private ExportTask(File directory, int framesPerSecond, int from, int to) {
+            this.directory = directory;
+            this.framesPerSecond = framesPerSecond;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from > FRAMES_PER_TASK) {
+                final int middle = (from + to) >>> 1;
+                ExportTask left = new ExportTask(directory, framesPerSecond, from, middle);
+                ExportTask right = new ExportTask(directory, framesPerSecond, middle, to);
+                invokeAll(left, right);
+                error = left.error != null ? left.error : right.error;
+                return;
+            }
+
+            final Renderer renderer = createRenderer();
+            final Bitmap bitmap = createBitmap();
+            try {
+                for (int frame = from; frame < to; frame++) {
+                    renderFrame(frame * 1000L / framesPerSecond, bitmap, renderer);
+                    writeFrame(bitmap, new File(directory,
+                            String.format(Locale.US, "frame_%05d.png", frame)));
+                }
+            } catch (IOException e) {
+                error = e;
+            } finally {
+                bitmap.recycle();
+            }
+        }
+    }
+}
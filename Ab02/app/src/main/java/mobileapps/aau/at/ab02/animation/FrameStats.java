@@ -0,0 +1,201 @@
+package mobileapps.aau.at.ab02.animation;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Frame statistics of an {@link AnimationView} animation.
+ *
+ * <p>
+ *     Records the time spent updating and drawing the words in each frame and counts
+ *     frames which were dropped, i.e. vsync intervals without a new frame. Durations are
+ *     stored in preallocated arrays, so recording does not allocate.
+ * </p>
+ *
+ * @see AnimationView#setFrameStatsEnabled(boolean)
+ */
+public final class FrameStats {
+
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private final long frameIntervalNanos;
+
+    // durations of the recorded frames, frames exceeding the capacity are only counted
+    private final long[] updateNanos;
+    private final long[] drawNanos;
+
+    private boolean recording = false;
+    private long lastFrameTimeNanos = -1;
+    private int frameCount = 0;
+    private int droppedFrameCount = 0;
+
+    /**
+     * Create new frame statistics.
+     *
+     * @param capacity           Maximum number of frames whose durations are recorded.
+     * @param frameIntervalNanos Time between two vsync signals in nanoseconds.
+     */
+    FrameStats(int capacity, long frameIntervalNanos) {
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity <= 0");
+        }
+        if (frameIntervalNanos <= 0) {
+            throw new IllegalArgumentException("frameIntervalNanos <= 0");
+        }
+
+        this.frameIntervalNanos = frameIntervalNanos;
+        updateNanos = new long[capacity];
+        drawNanos = new long[capacity];
+    }
+
+    /**
+     * Remove all recorded frames and start recording.
+     */
+    void start() {
+        Arrays.fill(updateNanos, 0);
+        Arrays.fill(drawNanos, 0);
+        lastFrameTimeNanos = -1;
+        frameCount = 0;
+        droppedFrameCount = 0;
+        recording = true;
+    }
+
+    /**
+     * Stop recording, the statistics are kept until the next {@link #start()}.
+     */
+    void stop() {
+        recording = false;
+    }
+
+    boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Begin a new frame.
+     *
+     * @param frameTimeNanos Vsync time of the frame as passed to the frame callback.
+     */
+    void onFrame(long frameTimeNanos) {
+
+        if (!recording) {
+            return;
+        }
+
+        if (lastFrameTimeNanos >= 0) {
+            // each missed vsync is a dropped frame
+            final long vsyncs = Math.round((frameTimeNanos - lastFrameTimeNanos) / (double) frameIntervalNanos);
+            droppedFrameCount += Math.max(0, vsyncs - 1);
+        }
+        lastFrameTimeNanos = frameTimeNanos;
+        frameCount += 1;
+    }
+
+    /**
+     * Add time spent updating the words to the current frame.
+     */
+    void recordUpdate(long nanos) {
+        if (recording && frameCount > 0 && frameCount <= updateNanos.length) {
+            updateNanos[frameCount - 1] += nanos;
+        }
+    }
+
+    /**
+     * Add time spent drawing the words to the current frame.
+     */
+    void recordDraw(long nanos) {
+        if (recording && frameCount > 0 && frameCount <= drawNanos.length) {
+            drawNanos[frameCount - 1] += nanos;
+        }
+    }
+
+    /**
+     * Get number of frames.
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Get number of vsync intervals without a frame.
+     */
+    public int getDroppedFrameCount() {
+        return droppedFrameCount;
+    }
+
+    /**
+     * Get number of frames whose update and draw together took longer than a vsync interval.
+     */
+    public int getSlowFrameCount() {
+        int result = 0;
+        for (int i = 0; i < getRecordedFrameCount(); i++) {
+            if (updateNanos[i] + drawNanos[i] > frameIntervalNanos) {
+                result += 1;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get average time spent updating the words per frame in nanoseconds.
+     */
+    public long getAverageUpdateNanos() {
+        return average(updateNanos);
+    }
+
+    /**
+     * Get maximum time spent updating the words in a frame in nanoseconds.
+     */
+    public long getMaxUpdateNanos() {
+        return max(updateNanos);
+    }
+
+    /**
+     * Get average time spent drawing the words per frame in nanoseconds.
+     */
+    public long getAverageDrawNanos() {
+        return average(drawNanos);
+    }
+
+    /**
+     * Get maximum time spent drawing the words in a frame in nanoseconds.
+     */
+    public long getMaxDrawNanos() {
+        return max(drawNanos);
+    }
+
+    private int getRecordedFrameCount() {
+        return Math.min(frameCount, updateNanos.length);
+    }
+
+    private long average(long[] values) {
+        final int count = getRecordedFrameCount();
+        if (count == 0) {
+            return 0;
+        }
+
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += values[i];
+        }
+        return sum / count;
+    }
+
+    private long max(long[] values) {
+        long result = 0;
+        for (int i = 0; i < getRecordedFrameCount(); i++) {
+            result = Math.max(result, values[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "frames: %d, dropped: %d, slow: %d, update avg/max: %.2f/%.2f ms, draw avg/max: %.2f/%.2f ms",
+                getFrameCount(), getDroppedFrameCount(), getSlowFrameCount(),
+                getAverageUpdateNanos() / 1e6, getMaxUpdateNanos() / 1e6,
+                getAverageDrawNanos() / 1e6, getMaxDrawNanos() / 1e6);
+    }
+}
@@ -0,0 +1,193 @@
+package mobileapps.aau.at.ab02.animation;
+
+import android.content.Context;
+import android.text.TextPaint;
+import android.text.TextUtils;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import mobileapps.aau.at.ab02.R;
+
+/**
+ * Tokenizes and measures texts in the background before an {@link AnimationView} shows them.
+ *
+ * <p>
+ *     Starting an activity takes some time, which can already be used for preparing the words,
+ *     e.g. as soon as a list row is tapped. The prepared words are kept in an in-process cache
+ *     keyed by the text and the text size and are handed over to the first view showing the text.
+ * </p>
+ */
+public final class PreparedWords {
+
+    // only a few texts are prepared at the same time, e.g. if several rows are tapped quickly
+    private static final int CAPACITY = 4;
+
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private static final LinkedHashMap<Key, Entry> ENTRIES = new LinkedHashMap<Key, Entry>(8, 0.75f, true) {
+        // within the map the simple name Entry would be the inherited Map.Entry
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, PreparedWords.Entry> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    private PreparedWords() {
+        // utility class
+    }
+
+    /**
+     * Start preparing the words of a text for the default text size of the animation view.
+     *
+     * @param context Context used for reading the text size.
+     * @param text    Text which is going to be shown.
+     */
+    public static void prepare(Context context, String text) {
+        prepare(text, context.getResources().getDimension(R.dimen.animation_text_size));
+    }
+
+    /**
+     * Start preparing the words of a text.
+     *
+     * @param text     Text which is going to be shown.
+     * @param textSize Text size in pixels.
+     */
+    static void prepare(final String text, final float textSize) {
+
+        if (text == null) {
+            throw new IllegalArgumentException("text is null");
+        }
+
+        final long requestNanos = System.nanoTime();
+        final Future<WordStore> future = EXECUTOR.submit(new Callable<WordStore>() {
+            @Override
+            public WordStore call() throws Exception {
+                return createWords(text, AnimationView.createTextPaint(textSize));
+            }
+        });
+
+        synchronized (ENTRIES) {
+            ENTRIES.put(new Key(text, textSize), new Entry(future, requestNanos));
+        }
+    }
+
+    /**
+     * Take the prepared words of a text, waiting for them if they are not finished yet.
+     *
+     * @return Prepared words or <code>null</code> if the text was not prepared.
+     */
+    static Entry take(CharSequence text, float textSize) {
+        synchronized (ENTRIES) {
+            return ENTRIES.remove(new Key(text, textSize));
+        }
+    }
+
+    /**
+     * Split a text into words and measure them.
+     *
+     * @param text      Text to split.
+     * @param textPaint Paint used for measuring the words.
+     * @return Measured words.
+     */
+    static WordStore createWords(CharSequence text, TextPaint textPaint) {
+
+        WordStore words = new WordStore();
+        WordTokenizer tokenizer = new WordTokenizer(text);
+        try {
+            while (tokenizer.nextWord()) {
+                words.add(tokenizer.getBuffer(), tokenizer.getWordStart(), tokenizer.getWordLength());
+            }
+        } catch (IOException e) {
+            // in memory text cannot fail
+            throw new IllegalStateException(e);
+        }
+
+        TextBoundsCache.getInstance().measure(words, textPaint);
+        return words;
+    }
+
+    /**
+     * Words prepared in the background.
+     */
+    static final class Entry {
+
+        private final Future<WordStore> future;
+
+        // time the words were requested, see System#nanoTime()
+        final long requestNanos;
+
+        private Entry(Future<WordStore> future, long requestNanos) {
+            this.future = future;
+            this.requestNanos = requestNanos;
+        }
+
+        /**
+         * Get the words, waiting until they are finished.
+         *
+         * @return Measured words or <code>null</code> if preparing them failed.
+         */
+        WordStore getWords() {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Key comparing the content of the text, which might be a memory mapped {@link TextHandoff} text.
+     */
+    private static final class Key {
+
+        private final CharSequence text;
+        private final float textSize;
+        private final int hashCode;
+
+        private Key(CharSequence text, float textSize) {
+            this.text = text;
+            this.textSize = textSize;
+
+            // same as String.hashCode(), which is cached for strings
+            int result = 0;
+            if (text instanceof String) {
+                result = text.hashCode();
+            } else {
+                for (int i = 0; i < text.length(); i++) {
+                    result = 31 * result + text.charAt(i);
+                }
+            }
+            hashCode = 31 * result + Float.floatToIntBits(textSize);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) o;
+            return hashCode == other.hashCode
+                    && Float.compare(textSize, other.textSize) == 0
+                    && TextUtils.equals(text, other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package mobileapps.aau.at.ab02.animation;
+
+import android.text.TextUtils;
+
+/**
+ * Keeps the measured words of an {@link AnimationView} across a configuration change.
+ *
+ * <p>
+ *     When the activity is recreated, e.g. after a rotation, the new view takes over the
+ *     words and the line breaks of the old one instead of tokenizing and measuring the
+ *     text again. Only the words of the last destroyed view are kept and they are handed
+ *     over at most once, so that no two views share them.
+ * </p>
+ */
+final class RetainedWords {
+
+    private static final RetainedWords INSTANCE = new RetainedWords();
+
+    private CharSequence text;
+    private float textSize;
+    private Entry entry;
+
+    private RetainedWords() {
+        // singleton
+    }
+
+    /**
+     * Get the shared instance.
+     */
+    static RetainedWords getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Keep the words of a view which is destroyed because of a configuration change.
+     *
+     * @param text     Text the words were created from.
+     * @param textSize Text size the words were measured with.
+     * @param words    Measured words.
+     * @param layout   Layout of the words.
+     */
+    synchronized void retain(CharSequence text, float textSize, WordStore words, WordLayout layout) {
+        this.text = text;
+        this.textSize = textSize;
+        this.entry = new Entry(words, layout, System.nanoTime());
+    }
+
+    /**
+     * Take the retained words, if they were created from the same text with the same text size.
+     *
+     * @return Retained words or <code>null</code>.
+     */
+    synchronized Entry take(CharSequence text, float textSize) {
+
+        final Entry result = entry;
+        if (result == null || textSize != this.textSize || !TextUtils.equals(this.text, text)) {
+            return null;
+        }
+
+        this.text = null;
+        this.entry = null;
+        return result;
+    }
+
+    /**
+     * Words handed over from one view to the next.
+     */
+    static final class Entry {
+
+        final WordStore words;
+        final WordLayout layout;
+
+        // time the words were retained, see System#nanoTime()
+        final long retainedNanos;
+
+        private Entry(WordStore words, WordLayout layout, long retainedNanos) {
+            this.words = words;
+            this.layout = layout;
+            this.retainedNanos = retainedNanos;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package mobileapps.aau.at.ab02.animation;
+
+import android.graphics.Rect;
+import android.graphics.Typeface;
+import android.text.TextPaint;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Process wide LRU cache for measured text bounds.
+ *
+ * <p>
+ *     Measuring text with {@link TextPaint#getTextBounds(char[], int, int, Rect)} is quite
+ *     expensive and the same words are measured again each time the {@link AnimationView} is created. Since the
+ *     results only depend on the word and the paint configuration, they can be shared
+ *     across activities.
+ * </p>
+ */
+final class TextBoundsCache {
+
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    private static final TextBoundsCache INSTANCE = new TextBoundsCache(DEFAULT_CAPACITY);
+
+    private final LinkedHashMap<Key, Metrics> cache;
+
+    // reused for lookups, so that no key must be created on a cache hit
+    private final Key lookupKey = new Key();
+
+    private int hitCount = 0;
+    private int missCount = 0;
+
+    /**
+     * Create new cache.
+     *
+     * @param capacity Maximum number of measured words kept in the cache.
+     */
+    TextBoundsCache(final int capacity) {
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity <= 0");
+        }
+
+        // access ordered linked hash map gives us the LRU behaviour for free
+        cache = new LinkedHashMap<Key, Metrics>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Metrics> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Get the shared cache instance.
+     */
+    static TextBoundsCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the bounds of the given word.
+     *
+     * <p>
+     *     Semantically the same as {@link TextPaint#getTextBounds(char[], int, int, Rect)},
+     *     but the result is taken from the cache, if the word was measured before with the same paint configuration.
+     * </p>
+     *
+     * @param chars     Buffer containing the word to measure.
+     * @param start     Index of the word's first character.
+     * @param length    Number of characters of the word.
+     * @param textPaint Paint object used for measuring.
+     * @param bounds    Rect receiving the bounds.
+     */
+    synchronized void measure(char[] chars, int start, int length, TextPaint textPaint, Rect bounds) {
+
+        Metrics metrics = cache.get(lookupKey.set(chars, start, length, textPaint));
+        if (metrics != null) {
+            hitCount += 1;
+        } else {
+            missCount += 1;
+            metrics = new Metrics(chars, start, length, textPaint);
+            cache.put(lookupKey.copy(), metrics);
+        }
+
+        bounds.set(metrics.bounds);
+    }
+
+    /**
+     * Measure all words of a word store.
+     *
+     * @param words     Words to measure, receive the bounds.
+     * @param textPaint Paint object used for measuring.
+     */
+    void measure(WordStore words, TextPaint textPaint) {
+
+        final Rect bounds = new Rect();
+        for (int i = 0; i < words.size(); i++) {
+            measure(words.getChars(), words.getWordStart(i), words.getWordLength(i), textPaint, bounds);
+            words.setMeasurements(i, bounds.left, bounds.top, bounds.width(), bounds.height());
+        }
+    }
+
+    /**
+     * Get number of lookups answered from the cache.
+     */
+    synchronized int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Get number of lookups which required measuring the text.
+     */
+    synchronized int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Get number of words currently cached.
+     */
+    synchronized int size() {
+        return cache.size();
+    }
+
+    /**
+     * Remove all cached bounds and reset the counters.
+     */
+    synchronized void clear() {
+        cache.clear();
+        hitCount = 0;
+        missCount = 0;
+    }
+
+    /**
+     * Measured values of a single word.
+     */
+    private static final class Metrics {
+
+        private final Rect bounds = new Rect();
+
+        private Metrics(char[] chars, int start, int length, TextPaint textPaint) {
+            textPaint.getTextBounds(chars, start, length, bounds);
+        }
+    }
+
+    /**
+     * Cache key consisting of the word and all paint properties affecting the bounds.
+     *
+     * <p>
+     *     The key is mutable, so that a single instance can be used for lookups
+     *     directly on the caller's buffer. Keys stored in the cache own a copy of the word.
+     * </p>
+     */
+    private static final class Key {
+
+        private char[] chars;
+        private int start;
+        private int length;
+        private Typeface typeface;
+        private float textSize;
+        private float textScaleX;
+        private int flags;
+        private int hashCode;
+
+        private Key set(char[] chars, int start, int length, TextPaint textPaint) {
+            this.chars = chars;
+            this.start = start;
+            this.length = length;
+            this.typeface = textPaint.getTypeface();
+            this.textSize = textPaint.getTextSize();
+            this.textScaleX = textPaint.getTextScaleX();
+            this.flags = textPaint.getFlags();
+
+            // same as String.hashCode()
+            int result = 0;
+            for (int i = start, end = start + length; i < end; i++) {
+                result = 31 * result + chars[i];
+            }
+            result = 31 * result + (typeface != null ? typeface.hashCode() : 0);
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + Float.floatToIntBits(textScaleX);
+            result = 31 * result + flags;
+            hashCode = result;
+
+            return this;
+        }
+
+        private Key copy() {
+            Key key = new Key();
+            key.chars = Arrays.copyOfRange(chars, start, start + length);
+            key.start = 0;
+            key.length = length;
+            key.typeface = typeface;
+            key.textSize = textSize;
+            key.textScaleX = textScaleX;
+            key.flags = flags;
+            key.hashCode = hashCode;
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) o;
+            if (hashCode != other.hashCode
+                    || length != other.length
+                    || flags != other.flags
+                    || Float.compare(textSize, other.textSize) != 0
+                    || Float.compare(textScaleX, other.textScaleX) != 0
+                    || (typeface != null ? !typeface.equals(other.typeface) : other.typeface != null)) {
+                return false;
+            }
+
+            for (int i = 0; i < length; i++) {
+                if (chars[start + i] != other.chars[other.start + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
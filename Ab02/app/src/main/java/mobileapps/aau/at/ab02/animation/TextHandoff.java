@@ -0,0 +1,190 @@
+package mobileapps.aau.at.ab02.animation;
+
+import android.content.Context;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Hands texts over to the {@link AnimationView} of another activity.
+ *
+ * <p>
+ *     Instead of the text, only a small key is passed with the intent, so that large texts are
+ *     not copied through the binder. The text itself is kept in memory. Since the process might
+ *     be killed while the activity is in the background and recreated later with the same intent,
+ *     each text is also written to a file in the background. In a new process the text is read
+ *     from a memory mapping of that file and tokenized directly from it, without copying
+ *     it to the heap first.
+ * </p>
+ */
+public final class TextHandoff {
+
+    /**
+     * Name of the intent extra containing the key.
+     */
+    public static final String EXTRA_KEY = "textKey";
+
+    private static final String DIRECTORY = "handoff";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    // files of texts never released, e.g. because the task was removed, are deleted after a day
+    private static final long MAX_FILE_AGE_MS = 24L * 60L * 60L * 1000L;
+
+    private static final ExecutorService SPILL_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private static final HashMap<String, CharSequence> TEXTS = new HashMap<>();
+
+    private TextHandoff() {
+        // utility class
+    }
+
+    /**
+     * Store a text for handing it over.
+     *
+     * @param context Context used for locating the spill files.
+     * @param text    Text to hand over.
+     * @return Key to be passed with {@link #EXTRA_KEY}.
+     */
+    public static String put(Context context, final String text) {
+
+        if (text == null) {
+            throw new IllegalArgumentException("text is null");
+        }
+
+        // random keys, so that files of a previous process are never overwritten
+        final String key = UUID.randomUUID().toString();
+        synchronized (TEXTS) {
+            TEXTS.put(key, text);
+        }
+
+        final File directory = getDirectory(context);
+        SPILL_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                deleteOldFiles(directory);
+                write(directory, key, text);
+            }
+        });
+
+        return key;
+    }
+
+    /**
+     * Get a text handed over.
+     *
+     * @param context Context used for locating the spill files.
+     * @param key     Key returned by {@link #put(Context, String)}.
+     * @return Text or <code>null</code> if there is no text for the key.
+     */
+    public static CharSequence get(Context context, String key) {
+
+        synchronized (TEXTS) {
+            CharSequence text = TEXTS.get(key);
+            if (text != null) {
+                return text;
+            }
+        }
+
+        // process was recreated - read the spilled text
+        final CharSequence text = read(new File(getDirectory(context), key));
+        if (text != null) {
+            synchronized (TEXTS) {
+                TEXTS.put(key, text);
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Release a text, which is not needed any more.
+     *
+     * @param context Context used for locating the spill files.
+     * @param key     Key returned by {@link #put(Context, String)}.
+     */
+    public static void release(Context context, final String key) {
+
+        synchronized (TEXTS) {
+            TEXTS.remove(key);
+        }
+
+        // executed after the text was written
+        final File directory = getDirectory(context);
+        SPILL_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                new File(directory, key).delete();
+            }
+        });
+    }
+
+    private static File getDirectory(Context context) {
+        return new File(context.getCacheDir(), DIRECTORY);
+    }
+
+    private static void write(File directory, String key, String text) {
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            return;
+        }
+
+        // written to a temporary file first, so that no partial text is ever read
+        final File temp = new File(directory, key + TEMP_SUFFIX);
+        try {
+            RandomAccessFile file = new RandomAccessFile(temp, "rw");
+            try {
+                FileChannel channel = file.getChannel();
+                channel.map(FileChannel.MapMode.READ_WRITE, 0, 2L * text.length()).asCharBuffer().put(text);
+            } finally {
+                file.close();
+            }
+
+            if (!temp.renameTo(new File(directory, key))) {
+                temp.delete();
+            }
+        } catch (IOException e) {
+            // text is only lost if the process is recreated
+            temp.delete();
+        }
+    }
+
+    private static CharSequence read(File path) {
+
+        if (!path.isFile()) {
+            return null;
+        }
+
+        try {
+            RandomAccessFile file = new RandomAccessFile(path, "r");
+            try {
+                // mapping stays valid after closing the file
+                FileChannel channel = file.getChannel();
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asCharBuffer();
+            } finally {
+                file.close();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void deleteOldFiles(File directory) {
+
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        final long now = System.currentTimeMillis();
+        for (File file : files) {
+            if (now - file.lastModified() > MAX_FILE_AGE_MS) {
+                file.delete();
+            }
+        }
+    }
+}
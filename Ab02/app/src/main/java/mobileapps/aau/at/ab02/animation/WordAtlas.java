@@ -0,0 +1,357 @@
+package mobileapps.aau.at.ab02.animation;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+import android.text.TextPaint;
+
+import java.util.Arrays;
+
+/**
+ * Bitmap atlas caching rasterized words.
+ *
+ * <p>
+ *     During the animation only the position of a word changes, therefore each word
+ *     is rasterized once into the atlas and afterwards just copied to its animated position.
+ * </p>
+ * <p>
+ *     The atlas consists of several pages, the number of pages is given by the memory budget.
+ *     Words are packed into shelves of a page. If all pages are full, the least recently
+ *     used page is cleared and all words it contained are rasterized again when needed.
+ * </p>
+ * <p>
+ *     Pages only store the coverage ({@link Bitmap.Config#ALPHA_8}), the text color is applied
+ *     when copying a word to the canvas. Therefore changing the text color does not
+ *     require rasterizing the words again, whereas changing the text size, typeface or
+ *     flags clears the atlas.
+ * </p>
+ */
+final class WordAtlas {
+
+    static final int PAGE_WIDTH = 1024;
+    static final int PAGE_HEIGHT = 512;
+
+    // padding around each word, so that anti aliased edges are not cut
+    private static final int PADDING = 1;
+
+    private final Page[] pages;
+
+    private final TextPaint rasterPaint = new TextPaint();
+    private final Paint blitPaint = new Paint();
+    private final Rect source = new Rect();
+    private final RectF destination = new RectF();
+
+    // paint configuration the cached words were rasterized with
+    private float textSize = -1.0f;
+    private float textScaleX = -1.0f;
+    private Typeface typeface = null;
+    private int flags = 0;
+
+    // location of each word in the atlas
+    private int[] wordPage = new int[0];
+    private int[] wordGeneration = new int[0];
+    private int[] wordX = new int[0];
+    private int[] wordY = new int[0];
+
+    private long frame = 0;
+
+    /**
+     * Create new atlas.
+     *
+     * @param budgetBytes Maximum number of bytes used for the pages, at least one page is used
+     *                    even if the budget is smaller.
+     */
+    WordAtlas(int budgetBytes) {
+
+        // the budget comes from a layout attribute, a small one must not break inflating the view
+        pages = new Page[Math.max(1, budgetBytes / (PAGE_WIDTH * PAGE_HEIGHT))];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = new Page();
+        }
+    }
+
+    /**
+     * Draw all words at their current positions.
+     *
+     * @param canvas    Canvas to draw on.
+     * @param words     Words to draw.
+     * @param positions Current positions of the words.
+     * @param textPaint Paint used for drawing the text.
+     */
+    void draw(Canvas canvas, WordStore words, WordPositions positions, TextPaint textPaint) {
+        draw(canvas, words, positions, textPaint, 0, words.size());
+    }
+
+    /**
+     * Draw a range of words at their current positions.
+     *
+     * @param canvas    Canvas to draw on.
+     * @param words     Words to draw.
+     * @param positions Current positions of the words.
+     * @param textPaint Paint used for drawing the text.
+     * @param from      Index of the first word.
+     * @param to        Index after the last word.
+     */
+    void draw(Canvas canvas, WordStore words, WordPositions positions, TextPaint textPaint, int from, int to) {
+
+        frame += 1;
+        updatePaints(textPaint);
+        ensureCapacity(words.size());
+
+        for (int i = from; i < to; i++) {
+            final float x = positions.getX(i);
+            final float y = positions.getY(i);
+
+            if (!isCached(i) && !rasterize(words, i)) {
+                // word does not fit into the atlas - draw it directly
+                canvas.drawText(words.getChars(), words.getWordStart(i), words.getWordLength(i),
+                        x, y, textPaint);
+                continue;
+            }
+
+            final Page page = pages[wordPage[i]];
+            page.lastUsedFrame = frame;
+
+            final int width = words.getWidth(i) + 2 * PADDING;
+            final int height = words.getHeight(i) + 2 * PADDING;
+            source.set(wordX[i], wordY[i], wordX[i] + width, wordY[i] + height);
+
+            final float left = x + words.getLeft(i) - PADDING;
+            final float top = y + words.getTop(i) - PADDING;
+            destination.set(left, top, left + width, top + height);
+
+            canvas.drawBitmap(page.bitmap, source, destination, blitPaint);
+        }
+    }
+
+    /**
+     * Remove all cached words.
+     */
+    void invalidate() {
+        for (Page page : pages) {
+            page.clear();
+        }
+    }
+
+    /**
+     * Release the memory of all pages.
+     */
+    void recycle() {
+        for (Page page : pages) {
+            page.recycle();
+        }
+    }
+
+    /**
+     * Get number of bytes currently allocated for pages.
+     */
+    int getAllocatedBytes() {
+        int result = 0;
+        for (Page page : pages) {
+            if (page.bitmap != null) {
+                result += page.bitmap.getAllocationByteCount();
+            }
+        }
+        return result;
+    }
+
+    private void updatePaints(TextPaint textPaint) {
+
+        // text color is applied when copying from the atlas
+        blitPaint.setColor(textPaint.getColor());
+
+        if (textSize == textPaint.getTextSize()
+                && textScaleX == textPaint.getTextScaleX()
+                && flags == textPaint.getFlags()
+                && typeface == textPaint.getTypeface()) {
+            return;
+        }
+
+        // words must be rasterized again
+        textSize = textPaint.getTextSize();
+        textScaleX = textPaint.getTextScaleX();
+        flags = textPaint.getFlags();
+        typeface = textPaint.getTypeface();
+
+        rasterPaint.set(textPaint);
+        rasterPaint.setColor(Color.BLACK);
+        rasterPaint.setTextAlign(Paint.Align.LEFT);
+
+        invalidate();
+    }
+
+    private void ensureCapacity(int numWords) {
+        if (wordPage.length >= numWords) {
+            return;
+        }
+
+        int oldLength = wordPage.length;
+        wordPage = Arrays.copyOf(wordPage, numWords);
+        wordGeneration = Arrays.copyOf(wordGeneration, numWords);
+        wordX = Arrays.copyOf(wordX, numWords);
+        wordY = Arrays.copyOf(wordY, numWords);
+        Arrays.fill(wordPage, oldLength, numWords, -1);
+    }
+
+    private boolean isCached(int index) {
+        final int page = wordPage[index];
+        return page >= 0 && pages[page].generation == wordGeneration[index];
+    }
+
+    /**
+     * Rasterize a word into the atlas.
+     *
+     * @return <code>true</code> on success, <code>false</code> if there is no space left.
+     */
+    private boolean rasterize(WordStore words, int index) {
+
+        final int width = words.getWidth(index) + 2 * PADDING;
+        final int height = words.getHeight(index) + 2 * PADDING;
+        if (width > PAGE_WIDTH || height > PAGE_HEIGHT) {
+            return false;
+        }
+
+        int pageIndex = allocate(width, height);
+        if (pageIndex < 0) {
+            // all pages are full - evict the least recently used page, which is not used in this frame
+            pageIndex = findLeastRecentlyUsedPage();
+            if (pageIndex < 0) {
+                return false;
+            }
+            pages[pageIndex].clear();
+            pageIndex = pages[pageIndex].allocate(width, height) ? pageIndex : -1;
+            if (pageIndex < 0) {
+                return false;
+            }
+        }
+
+        final Page page = pages[pageIndex];
+        wordPage[index] = pageIndex;
+        wordGeneration[index] = page.generation;
+        wordX[index] = page.allocatedX;
+        wordY[index] = page.allocatedY;
+
+        page.canvas.drawText(words.getChars(), words.getWordStart(index), words.getWordLength(index),
+                page.allocatedX + PADDING - words.getLeft(index),
+                page.allocatedY + PADDING - words.getTop(index),
+                rasterPaint);
+
+        return true;
+    }
+
+    private int allocate(int width, int height) {
+        for (int i = 0; i < pages.length; i++) {
+            if (pages[i].allocate(width, height)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int findLeastRecentlyUsedPage() {
+        int result = -1;
+        for (int i = 0; i < pages.length; i++) {
+            if (pages[i].lastUsedFrame < frame
+                    && (result < 0 || pages[i].lastUsedFrame < pages[result].lastUsedFrame)) {
+                result = i;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Single page of the atlas, divided into shelves.
+     */
+    private static final class Page {
+
+        private Bitmap bitmap;
+        private Canvas canvas;
+
+        private int[] shelfY = new int[8];
+        private int[] shelfHeight = new int[8];
+        private int[] shelfX = new int[8];
+        private int numShelves = 0;
+
+        private int generation = 0;
+        private long lastUsedFrame = 0;
+
+        // result of the last successful allocation
+        private int allocatedX;
+        private int allocatedY;
+
+        /**
+         * Allocate space for a word.
+         *
+         * <p>
+         *     On success the location is stored in {@link #allocatedX} and {@link #allocatedY}.
+         * </p>
+         */
+        private boolean allocate(int width, int height) {
+
+            // try existing shelves with a similar height
+            for (int i = 0; i < numShelves; i++) {
+                if (height <= shelfHeight[i]
+                        && shelfHeight[i] <= height + height / 2
+                        && shelfX[i] + width <= PAGE_WIDTH) {
+                    allocatedX = shelfX[i];
+                    allocatedY = shelfY[i];
+                    shelfX[i] += width;
+                    ensureBitmap();
+                    return true;
+                }
+            }
+
+            // open a new shelf
+            final int y = numShelves == 0 ? 0 : shelfY[numShelves - 1] + shelfHeight[numShelves - 1];
+            if (y + height > PAGE_HEIGHT) {
+                return false;
+            }
+
+            if (numShelves == shelfY.length) {
+                shelfY = Arrays.copyOf(shelfY, numShelves * 2);
+                shelfHeight = Arrays.copyOf(shelfHeight, numShelves * 2);
+                shelfX = Arrays.copyOf(shelfX, numShelves * 2);
+            }
+            shelfY[numShelves] = y;
+            shelfHeight[numShelves] = height;
+            shelfX[numShelves] = width;
+            numShelves += 1;
+
+            allocatedX = 0;
+            allocatedY = y;
+            ensureBitmap();
+            return true;
+        }
+
+        private void ensureBitmap() {
+            if (bitmap == null) {
+                bitmap = Bitmap.createBitmap(PAGE_WIDTH, PAGE_HEIGHT, Bitmap.Config.ALPHA_8);
+                canvas = new Canvas(bitmap);
+            }
+        }
+
+        /**
+         * Remove all words from this page.
+         */
+        private void clear() {
+            if (bitmap != null) {
+                bitmap.eraseColor(Color.TRANSPARENT);
+            }
+            numShelves = 0;
+            generation += 1;
+        }
+
+        private void recycle() {
+            clear();
+            if (bitmap != null) {
+                bitmap.recycle();
+                bitmap = null;
+                canvas = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package mobileapps.aau.at.ab02.listview;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Imports the lines of a UTF-8 text file as entries.
+ *
+ * <p>
+ *     The file is streamed line by line on a background thread, lines are checked like the
+ *     input of the editor, invalid ones are skipped. Valid lines are added to the list in
+ *     batches on the UI thread, together with reporting the progress. At most
+ *     {@link #MAX_PENDING_BATCHES} batches wait for the UI thread, so the import never
+ *     reads further ahead than the list can take the entries.
+ * </p>
+ * <p>
+ *     An import outlives the activity it was started from on configuration changes: it is
+ *     {@link #detach() detached} from the old list and {@link #attach(ListViewAdapter, Listener)
+ *     attached} to the new one. Batches arriving in between are held, and the import waits for
+ *     the new list like for a busy UI thread.
+ * </p>
+ */
+public final class EntryImporter {
+
+    private static final String TAG = "EntryImporter";
+
+    static final int BATCH_SIZE = 4096;
+    static final int MAX_PENDING_BATCHES = 2;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    /**
+     * Receives the progress of an import on the UI thread.
+     */
+    public interface Listener {
+
+        /**
+         * Called after each batch of entries was added.
+         */
+        void onProgress(Progress progress);
+
+        /**
+         * Called after the last entries were added.
+         */
+        void onFinished(Progress progress);
+
+        void onError(IOException e);
+    }
+
+    /**
+     * Receives the batches of entries.
+     */
+    interface Sink {
+        void addAll(List<String> entries);
+    }
+
+    /**
+     * Progress of an import.
+     */
+    public static final class Progress {
+
+        private final long bytesRead;
+        private final long totalBytes;
+        private final int numEntries;
+        private final int numSkippedLines;
+        private final long elapsedNanos;
+
+        Progress(long bytesRead, long totalBytes, int numEntries, int numSkippedLines, long elapsedNanos) {
+            this.bytesRead = bytesRead;
+            this.totalBytes = totalBytes;
+            this.numEntries = numEntries;
+            this.numSkippedLines = numSkippedLines;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        /**
+         * @return Size of the file or -1 if unknown.
+         */
+        public long getTotalBytes() {
+            return totalBytes;
+        }
+
+        /**
+         * @return Fraction of the file read or -1 if the size is unknown.
+         */
+        public float getFraction() {
+            return totalBytes > 0 ? Math.min(1.0f, bytesRead / (float) totalBytes) : -1.0f;
+        }
+
+        public int getNumEntries() {
+            return numEntries;
+        }
+
+        /**
+         * @return Number of lines not added, because they were not valid entries.
+         */
+        public int getNumSkippedLines() {
+            return numSkippedLines;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getBytesPerSecond() {
+            return elapsedNanos > 0 ? bytesRead / (elapsedNanos / 1e9) : 0.0;
+        }
+
+        public double getEntriesPerSecond() {
+            return elapsedNanos > 0 ? numEntries / (elapsedNanos / 1e9) : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%d entries, %d lines skipped, %.1f MB in %.1f s (%.1f MB/s, %.0f entries/s)",
+                    numEntries, numSkippedLines, bytesRead / 1e6, elapsedNanos / 1e9,
+                    getBytesPerSecond() / 1e6, getEntriesPerSecond());
+        }
+    }
+
+    private final Executor callbackExecutor;
+    private final Semaphore pendingBatches = new Semaphore(MAX_PENDING_BATCHES);
+
+    // only used on the UI thread, null while detached
+    private Sink sink;
+    private Listener listener;
+    private final List<Runnable> heldCallbacks = new ArrayList<>();
+
+    private volatile boolean cancelled = false;
+
+    EntryImporter(Sink sink, Executor callbackExecutor, Listener listener) {
+
+        if (listener == null) {
+            throw new IllegalArgumentException("listener is null");
+        }
+
+        this.sink = sink;
+        this.callbackExecutor = callbackExecutor;
+        this.listener = listener;
+    }
+
+    /**
+     * Import a file into a list in the background.
+     *
+     * @param context  Context used for opening the file.
+     * @param uri      Content or file URI of the file.
+     * @param adapter  Adapter receiving the entries.
+     * @param listener Listener receiving the progress.
+     * @return The import, e.g. for cancelling it.
+     */
+    public static EntryImporter start(Context context, final Uri uri, final ListViewAdapter adapter,
+                                      Listener listener) {
+
+        final Handler handler = new Handler(Looper.getMainLooper());
+        final EntryImporter importer = new EntryImporter(toSink(adapter), new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                handler.post(command);
+            }
+        }, listener);
+
+        final Context appContext = context.getApplicationContext();
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    InputStream in = appContext.getContentResolver().openInputStream(uri);
+                    if (in == null) {
+                        throw new IOException("cannot open " + uri);
+                    }
+                    try {
+                        Log.i(TAG, importer.run(in, getLength(appContext, uri)).toString());
+                    } finally {
+                        in.close();
+                    }
+                } catch (IOException e) {
+                    importer.reportError(e);
+                }
+            }
+        }, TAG).start();
+
+        return importer;
+    }
+
+    /**
+     * Stop adding entries to the list and reporting the progress, until the import is attached
+     * again, e.g. when the activity is recreated for a configuration change.
+     *
+     * <p>
+     *     Must be called on the UI thread.
+     * </p>
+     */
+    public void detach() {
+        sink = null;
+        listener = null;
+    }
+
+    /**
+     * Continue a detached import with another list, the batches held meanwhile are added first.
+     *
+     * <p>
+     *     Must be called on the UI thread.
+     * </p>
+     *
+     * @param adapter  Adapter receiving the entries.
+     * @param listener Listener receiving the progress.
+     */
+    public void attach(ListViewAdapter adapter, Listener listener) {
+        attach(toSink(adapter), listener);
+    }
+
+    void attach(Sink sink, Listener listener) {
+
+        if (sink == null) {
+            throw new IllegalArgumentException("sink is null");
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("listener is null");
+        }
+
+        this.sink = sink;
+        this.listener = listener;
+        runHeldCallbacks();
+    }
+
+    /**
+     * Stop the import, entries already added are kept.
+     *
+     * <p>
+     *     Must be called on the UI thread. Once cancelled, batches already on their way to the
+     *     UI thread or held while detached are dropped and the listener is not called anymore,
+     *     not even for errors.
+     * </p>
+     */
+    public void cancel() {
+        cancelled = true;
+        // lets the reading thread see the cancellation instead of waiting for the batches to be taken
+        runHeldCallbacks();
+    }
+
+    /**
+     * Import all lines of a stream, blocking until the last batch was handed to the UI thread.
+     *
+     * @param in         Stream of the file.
+     * @param totalBytes Size of the file or -1 if unknown.
+     * @return Progress at the end of the import.
+     */
+    Progress run(InputStream in, long totalBytes) throws IOException {
+        final long startNanos = System.nanoTime();
+        final CountingInputStream counter = new CountingInputStream(in);
+        final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(counter, StandardCharsets.UTF_8), BUFFER_SIZE);
+
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        int numEntries = 0;
+        int numSkippedLines = 0;
+
+        String line = reader.readLine();
+        if (line != null && !line.isEmpty() && line.charAt(0) == BYTE_ORDER_MARK) {
+            line = line.substring(1);
+        }
+
+        while (line != null && !cancelled) {
+            if (EntryValidator.isValid(line)) {
+                batch.add(line);
+                numEntries++;
+            } else {
+                numSkippedLines++;
+            }
+
+            if (batch.size() == BATCH_SIZE) {
+                deliver(batch, new Progress(counter.count, totalBytes, numEntries, numSkippedLines,
+                        System.nanoTime() - startNanos), false);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+            line = reader.readLine();
+        }
+
+        final Progress progress = new Progress(counter.count, totalBytes, numEntries, numSkippedLines,
+                System.nanoTime() - startNanos);
+        if (!cancelled) {
+            deliver(batch, progress, true);
+        }
+        return progress;
+    }
+
+    private void deliver(final List<String> batch, final Progress progress, final boolean finished) {
+
+        // wait until the UI thread took one of the earlier batches
+        pendingBatches.acquireUninterruptibly();
+
+        callbackExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                // the batch is taken once attached, the import waits until then
+                if (sink == null && !cancelled) {
+                    heldCallbacks.add(this);
+                    return;
+                }
+                pendingBatches.release();
+
+                // cancelled after the batch was posted, e.g. the list is gone already
+                if (cancelled) {
+                    return;
+                }
+
+                if (!batch.isEmpty()) {
+                    sink.addAll(batch);
+                }
+
+                if (finished) {
+                    listener.onFinished(progress);
+                } else {
+                    listener.onProgress(progress);
+                }
+            }
+        });
+    }
+
+    private void reportError(final IOException e) {
+        Log.e(TAG, "import failed", e);
+        callbackExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (listener == null && !cancelled) {
+                    heldCallbacks.add(this);
+                } else if (!cancelled) {
+                    listener.onError(e);
+                }
+            }
+        });
+    }
+
+    private void runHeldCallbacks() {
+        final Runnable[] callbacks = heldCallbacks.toArray(new Runnable[heldCallbacks.size()]);
+        heldCallbacks.clear();
+        for (Runnable callback : callbacks) {
+            callback.run();
+        }
+    }
+
+    private static Sink toSink(final ListViewAdapter adapter) {
+        return new Sink() {
+            @Override
+            public void addAll(List<String> entries) {
+                adapter.addItems(entries);
+            }
+        };
+    }
+
+    private static long getLength(Context context, Uri uri) {
+        try {
+            AssetFileDescriptor descriptor = context.getContentResolver().openAssetFileDescriptor(uri, "r");
+            if (descriptor == null) {
+                return -1;
+            }
+            try {
+                return descriptor.getLength();
+            } finally {
+                descriptor.close();
+            }
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Counts the bytes read, for reporting the progress.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count = 0;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,911 @@
+package mobileapps.aau.at.ab02.listview;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent list of entries.
+ *
+ * <p>
+ *     The file starts with a snapshot of all entries: their count, an offset table and the
+ *     characters of all entries. Changes after the snapshot are appended as records. Opening
+ *     the log only maps the file and replays these records, entries of the snapshot are
+ *     decoded from the mapping when they are read, so opening does not depend on the number
+ *     of entries.
+ * </p>
+ *
+ * <p>
+ *     Changes are visible immediately, their records are collected and written in batches on
+ *     a background thread. Changed entries are read back from their records, only the offset
+ *     of the last record of each changed entry is kept in memory, while the records are in
+ *     memory only until they are written. Once there are as many records as entries in the
+ *     snapshot, the whole file is replaced by a new snapshot instead. Since the snapshots grow
+ *     geometrically, each entry is rewritten only a few times on average, also when appending
+ *     millions of entries.
+ * </p>
+ */
+public final class EntryLog implements EntrySource, Closeable {
+
+    // delay of writing a change, further changes in this time are written in the same batch
+    static final long FLUSH_DELAY_MS = 200;
+
+    private static final int MAGIC = 0x456e7472; // "Entr"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12; // magic, version, count
+
+    // op, index, length, followed by the chars
+    private static final int RECORD_HEADER_SIZE = 9;
+    private static final int RECORD_LENGTH_OFFSET = 5;
+    private static final byte OP_ADD = 1;
+    private static final byte OP_SET = 2;
+    private static final byte OP_CLEAR = 3;
+
+    // pending records written without waiting for the delay
+    private static final int MAX_PENDING_BYTES = 64 * 1024;
+    private static final int MIN_RECORDS_TO_COMPACT = 1024;
+
+    // the file is mapped as a whole and addressed by int positions
+    private static final long MAX_FILE_SIZE = Integer.MAX_VALUE;
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final File path;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor();
+
+    // entries as seen by the callers, guarded by this
+    private Snapshot snapshot;
+    private int numSnapshotEntries;
+    private Changes changes;
+    // changes written to the snapshot currently being written, null if there is none
+    private Changes compactingChanges;
+    private int size;
+    private int numClears;
+
+    // records of the current file, guarded by this
+    private Records records;
+    private boolean flushScheduled = false;
+    private boolean flushQueued = false;
+    // records and entries in the file, a new snapshot is written once there are more records
+    private int numRecords;
+    private int numFileSnapshotEntries;
+    private long numCompactedEntries;
+    private IOException error;
+    private volatile long maxFileSize = MAX_FILE_SIZE;
+
+    // only used by the writer
+    private RandomAccessFile file;
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            write();
+        }
+    };
+
+    private EntryLog(File path, RandomAccessFile file, Snapshot snapshot, Records records) {
+        this.path = path;
+        this.file = file;
+        this.snapshot = snapshot;
+        this.numSnapshotEntries = snapshot.count;
+        this.numFileSnapshotEntries = snapshot.count;
+        this.size = snapshot.count;
+        this.records = records;
+        this.changes = new Changes(snapshot.count, records);
+    }
+
+    /**
+     * Open a log, creating an empty one if the file does not exist.
+     *
+     * @throws IOException if the file cannot be read or is no entry log.
+     */
+    public static EntryLog open(File path) throws IOException {
+
+        if (!path.exists() || path.length() == 0) {
+            writeSnapshot(path, new Snapshot(), new Changes(0, null), 0, MAX_FILE_SIZE);
+        }
+
+        final RandomAccessFile file = new RandomAccessFile(path, "rw");
+        try {
+            final FileChannel channel = file.getChannel();
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            final Snapshot snapshot = new Snapshot(buffer);
+            final Records records = new Records(channel, snapshot.end);
+            final EntryLog log = new EntryLog(path, file, snapshot, records);
+
+            // drop a record which was only partially written
+            final int end = log.replay(buffer, snapshot.end);
+            channel.truncate(end);
+            channel.position(end);
+
+            // the records replayed are read from the mapping used for replaying them
+            buffer.limit(end);
+            buffer.position(snapshot.end);
+            records.numWritten = end - snapshot.end;
+            records.mapped = buffer.slice();
+            return log;
+
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Get an entry, entries of the snapshot are views of the mapped file, changed entries are
+     * read from their last record.
+     *
+     * @throws UncheckedIOException if the record of a changed entry cannot be read.
+     */
+    @Override
+    public synchronized CharSequence get(int index) {
+        checkIndex(index);
+
+        try {
+            int offset = changes.get(index);
+            if (offset >= 0) {
+                return changes.records.getChars(offset).toString();
+            }
+            if (compactingChanges != null) {
+                offset = compactingChanges.get(index);
+                if (offset >= 0) {
+                    return compactingChanges.records.getChars(offset).toString();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot read entry " + index, e);
+        }
+        return snapshot.get(index);
+    }
+
+    @Override
+    public synchronized void add(CharSequence text) {
+        changes.put(size, record(OP_ADD, size, text));
+        size++;
+    }
+
+    @Override
+    public synchronized void set(int index, CharSequence text) {
+        checkIndex(index);
+        changes.put(index, record(OP_SET, index, text));
+    }
+
+    /**
+     * Remove all entries.
+     */
+    @Override
+    public synchronized void clear() {
+        numSnapshotEntries = 0;
+        changes = new Changes(0, records);
+        compactingChanges = null;
+        size = 0;
+        numClears++;
+        record(OP_CLEAR, 0, "");
+    }
+
+    /**
+     * Write all changes and wait for them to be written.
+     *
+     * @throws IOException if a change could not be written.
+     */
+    public void flush() throws IOException {
+        try {
+            writer.submit(flushTask).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+
+        synchronized (this) {
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+
+    /**
+     * Write all changes in the background and close the file afterwards.
+     */
+    @Override
+    public void close() {
+        writer.execute(flushTask);
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    file.close();
+                } catch (IOException e) {
+                    // all changes are written already
+                }
+            }
+        });
+        writer.shutdown();
+    }
+
+    /**
+     * Append a record to the pending ones.
+     *
+     * @return Offset of the record within the records of the current file.
+     */
+    private int record(byte op, int index, CharSequence text) {
+
+        final int offset = records.append(op, index, text);
+        numRecords++;
+
+        if (records.pending.position() >= MAX_PENDING_BYTES && !flushQueued) {
+            flushQueued = true;
+            writer.execute(flushTask);
+        } else if (!flushScheduled) {
+            flushScheduled = true;
+            writer.schedule(flushTask, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+        return offset;
+    }
+
+    /**
+     * Write the pending records or a new snapshot, runs on the writer.
+     */
+    private void write() {
+        final Records written;
+        final ByteBuffer taken;
+        Compaction compaction = null;
+
+        synchronized (this) {
+            flushScheduled = false;
+            flushQueued = false;
+            if (records.pending.position() == 0) {
+                return;
+            }
+
+            // records being written can still be read until they are in the file
+            written = records;
+            taken = written.takePending();
+
+            // snapshot contains exactly the changes of the records taken, later ones are kept apart
+            if (numRecords >= Math.max(MIN_RECORDS_TO_COMPACT, numFileSnapshotEntries)) {
+                compaction = new Compaction(numSnapshotEntries > 0 ? snapshot : new Snapshot(),
+                        changes, size, numRecords, numClears);
+                compactingChanges = changes;
+                records = new Records(null, 0);
+                changes = new Changes(size, records);
+                numRecords = 0;
+            }
+        }
+
+        try {
+            if (compaction == null || !compact(compaction)) {
+                final FileChannel channel = file.getChannel();
+                final long end = (long) written.start + written.numWritten;
+                if (end + taken.limit() > maxFileSize) {
+                    throw new IOException("entry log would exceed " + maxFileSize + " bytes");
+                }
+                if (channel.size() > end) {
+                    // cut what a failed write left, its records are written again
+                    channel.truncate(end);
+                }
+                channel.position(end);
+                final ByteBuffer bytes = taken.duplicate();
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                synchronized (this) {
+                    written.onWritten();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // e.g. a mapping the system refuses, the writer must not die silently
+            synchronized (this) {
+                if (error == null) {
+                    error = e instanceof IOException ? (IOException) e : new IOException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replace the file by a new snapshot and read further entries from it.
+     *
+     * @return Whether the snapshot was written, otherwise the records have to be appended.
+     */
+    private boolean compact(Compaction compaction) throws IOException {
+        final Records replaced = compaction.changes.records;
+        final int end;
+
+        try {
+            synchronized (this) {
+                // records already in the file are read through a single mapping while writing
+                replaced.map();
+            }
+            end = writeSnapshot(path, compaction.snapshot, compaction.changes, compaction.size, maxFileSize);
+        } catch (IOException | RuntimeException e) {
+            // old file is still intact, records since the compaction started follow the ones taken
+            synchronized (this) {
+                final int delta = replaced.end();
+                replaced.pending = records.pending;
+                if (numClears == compaction.numClears) {
+                    compaction.changes.putAll(changes, delta);
+                    changes = compaction.changes;
+                } else {
+                    changes.move(replaced, delta);
+                }
+                records = replaced;
+                compactingChanges = null;
+                numRecords += compaction.numRecords;
+            }
+            return false;
+        }
+
+        // further records are appended to the new file, even if mapping it fails
+        final RandomAccessFile replacedFile = file;
+        file = new RandomAccessFile(path, "rw");
+        final FileChannel channel = file.getChannel();
+        channel.position(end);
+        synchronized (this) {
+            records.onFileWritten(channel, end);
+        }
+
+        final Snapshot written = new Snapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, end));
+        synchronized (this) {
+            snapshot = written;
+            if (numClears == compaction.numClears) {
+                numSnapshotEntries = compaction.size;
+            }
+            compactingChanges = null;
+            numFileSnapshotEntries = compaction.size;
+            numCompactedEntries += compaction.size;
+        }
+
+        // no entry is read from the replaced records any more
+        replacedFile.close();
+        return true;
+    }
+
+    /**
+     * Apply the records following the snapshot.
+     *
+     * @return End of the last complete record.
+     */
+    private int replay(ByteBuffer buffer, int position) {
+
+        final int start = position;
+        while (buffer.limit() - position >= RECORD_HEADER_SIZE) {
+            final byte op = buffer.get(position);
+            final int index = buffer.getInt(position + 1);
+            final int length = buffer.getInt(position + RECORD_LENGTH_OFFSET);
+            final int end = position + RECORD_HEADER_SIZE + 2 * length;
+            if (length < 0 || end < position || end > buffer.limit()) {
+                break;
+            }
+
+            if (op == OP_ADD && index == size) {
+                changes.put(size++, position - start);
+            } else if (op == OP_SET && index >= 0 && index < size) {
+                changes.put(index, position - start);
+            } else if (op == OP_CLEAR) {
+                numSnapshotEntries = 0;
+                changes = new Changes(0, records);
+                size = 0;
+            } else {
+                break;
+            }
+
+            numRecords++;
+            position = end;
+        }
+        return position;
+    }
+
+    /**
+     * Get the number of entries written to new snapshots so far, i.e. the cost of compacting.
+     */
+    synchronized long getNumCompactedEntries() {
+        return numCompactedEntries;
+    }
+
+    /**
+     * Limit the size of the file below what a mapping can hold, so that running into it can be tested.
+     */
+    void setMaxFileSize(long maxFileSize) {
+        this.maxFileSize = Math.min(maxFileSize, MAX_FILE_SIZE);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+    }
+
+    /**
+     * Write a new snapshot of entries, replacing the file.
+     *
+     * @return Size of the snapshot, i.e. position of the first record.
+     */
+    private static int writeSnapshot(File path, Snapshot snapshot, Changes changes, int size, long maxFileSize)
+            throws IOException {
+
+        // entries are looked up again in each pass instead of being collected, so that writing
+        // a snapshot of millions of entries only needs the mapped files
+        long numChars = 0;
+        for (int i = 0; i < size; i++) {
+            numChars += getLength(snapshot, changes, i);
+        }
+        final long length = HEADER_SIZE + 4L * (size + 1) + 2L * numChars;
+        if (length > maxFileSize) {
+            // the offsets would wrap and the mapping would fail
+            throw new IOException("snapshot of " + length + " bytes exceeds " + maxFileSize + " bytes");
+        }
+
+        // written to a temporary file first, so that a failure leaves the old file intact
+        final File temp = new File(path.getPath() + TEMP_SUFFIX);
+        final RandomAccessFile file = new RandomAccessFile(temp, "rw");
+        try {
+            file.setLength(0);
+            final MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(size);
+
+            int offset = 0;
+            buffer.putInt(offset);
+            for (int i = 0; i < size; i++) {
+                offset += getLength(snapshot, changes, i);
+                buffer.putInt(offset);
+            }
+
+            // copied between the buffers without creating strings
+            final CharBuffer chars = buffer.asCharBuffer();
+            final CharBuffer source = snapshot.chars.duplicate();
+            for (int i = 0; i < size; i++) {
+                final int record = changes.get(i);
+                if (record >= 0) {
+                    chars.put(changes.records.getChars(record));
+                } else {
+                    source.limit(snapshot.offsets.get(i + 1));
+                    source.position(snapshot.offsets.get(i));
+                    chars.put(source);
+                }
+            }
+
+            // the rename might reach the disk before the data otherwise, a power loss would then
+            // leave a log without any entries
+            buffer.force();
+            file.getChannel().force(true);
+        } finally {
+            file.close();
+        }
+
+        if (!temp.renameTo(path)) {
+            temp.delete();
+            throw new IOException("cannot replace " + path);
+        }
+        return (int) length;
+    }
+
+    private static int getLength(Snapshot snapshot, Changes changes, int index) throws IOException {
+        final int record = changes.get(index);
+        return record >= 0 ? changes.records.getLength(record) : snapshot.getLength(index);
+    }
+
+    /**
+     * Entries written to a new snapshot.
+     */
+    private static final class Compaction {
+
+        private final Snapshot snapshot;
+        private final Changes changes;
+        private final int size;
+        private final int numRecords;
+        private final int numClears;
+
+        private Compaction(Snapshot snapshot, Changes changes, int size, int numRecords, int numClears) {
+            this.snapshot = snapshot;
+            this.changes = changes;
+            this.size = size;
+            this.numRecords = numRecords;
+            this.numClears = numClears;
+        }
+    }
+
+    /**
+     * Records following the snapshot of a file, addressed by their offset from the first record.
+     *
+     * <p>
+     *     The first records are in the file, followed by the ones being written and the pending
+     *     ones, which are kept in memory. Guarded by the log, records of a file being replaced
+     *     are not changed any more and are also read by the writer.
+     * </p>
+     */
+    private static final class Records {
+
+        private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+        private static final int WINDOW_SIZE = 64 * 1024;
+
+        // null while the snapshot of a new file is written, no record is in the file then
+        private FileChannel channel;
+        // position of the first record in the file
+        private int start;
+        private int numWritten = 0;
+        // mapping of the records in the file, if any, might not contain the last ones
+        private ByteBuffer mapped;
+        // records being written, flipped
+        private ByteBuffer writing = EMPTY;
+        private ByteBuffer pending = ByteBuffer.allocate(4096);
+        // records of the file read by the last lookup not covered by the mapping, only used by readers
+        private ByteBuffer window;
+        private int windowOffset = -1;
+
+        private Records(FileChannel channel, int start) {
+            this.channel = channel;
+            this.start = start;
+        }
+
+        /**
+         * @return Offset of the record.
+         */
+        private int append(byte op, int index, CharSequence text) {
+            final int length = text.length();
+            if (pending.remaining() < RECORD_HEADER_SIZE + 2 * length) {
+                final int capacity = Math.max(2 * pending.capacity(), pending.position() + RECORD_HEADER_SIZE + 2 * length);
+                final ByteBuffer newPending = ByteBuffer.allocate(capacity);
+                pending.flip();
+                newPending.put(pending);
+                pending = newPending;
+            }
+
+            final int offset = end();
+            pending.put(op);
+            pending.putInt(index);
+            pending.putInt(length);
+            for (int i = 0; i < length; i++) {
+                pending.putChar(text.charAt(i));
+            }
+            return offset;
+        }
+
+        /**
+         * Offset following the last record.
+         */
+        private int end() {
+            return numWritten + writing.limit() + pending.position();
+        }
+
+        /**
+         * Take the pending records for writing them, after the ones of a failed write, if any.
+         */
+        private ByteBuffer takePending() {
+            pending.flip();
+            if (writing.limit() > 0) {
+                final ByteBuffer failed = writing;
+                writing = ByteBuffer.allocate(failed.limit() + pending.limit());
+                writing.put(failed.duplicate());
+                writing.put(pending);
+                writing.flip();
+            } else {
+                writing = pending;
+            }
+            pending = ByteBuffer.allocate(pending.capacity());
+            return writing;
+        }
+
+        private void onWritten() {
+            numWritten += writing.limit();
+            writing = EMPTY;
+        }
+
+        /**
+         * Called once the snapshot of the new file was written, the pending records follow it.
+         */
+        private void onFileWritten(FileChannel channel, int start) {
+            this.channel = channel;
+            this.start = start;
+        }
+
+        private void map() throws IOException {
+            if (numWritten > 0 && (mapped == null || mapped.limit() < numWritten)) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, numWritten);
+            }
+        }
+
+        private int getLength(int offset) throws IOException {
+            final int inWriting = offset - numWritten;
+            if (inWriting >= writing.limit()) {
+                return pending.getInt(inWriting - writing.limit() + RECORD_LENGTH_OFFSET);
+            } else if (inWriting >= 0) {
+                return writing.getInt(inWriting + RECORD_LENGTH_OFFSET);
+            } else if (mapped != null && offset < mapped.limit()) {
+                return mapped.getInt(offset + RECORD_LENGTH_OFFSET);
+            }
+
+            readWindow(offset, RECORD_HEADER_SIZE);
+            return window.getInt(offset - windowOffset + RECORD_LENGTH_OFFSET);
+        }
+
+        /**
+         * Get the characters of a record as a new view, so that the writer and the readers do
+         * not interfere. Records read from the file are only valid until the next one is read.
+         */
+        private CharBuffer getChars(int offset) throws IOException {
+            final int length = getLength(offset);
+            final int inWriting = offset - numWritten;
+            final ByteBuffer bytes;
+            final int position;
+            if (inWriting >= writing.limit()) {
+                bytes = pending.duplicate();
+                position = inWriting - writing.limit();
+            } else if (inWriting >= 0) {
+                bytes = writing.duplicate();
+                position = inWriting;
+            } else if (mapped != null && offset < mapped.limit()) {
+                bytes = mapped.duplicate();
+                position = offset;
+            } else if (readWindow(offset, RECORD_HEADER_SIZE + 2 * length)) {
+                bytes = window.duplicate();
+                position = offset - windowOffset;
+            } else {
+                final ByteBuffer read = ByteBuffer.allocate(2 * length);
+                read(read, offset + RECORD_HEADER_SIZE);
+                return read.asCharBuffer();
+            }
+
+            bytes.limit(position + RECORD_HEADER_SIZE + 2 * length);
+            bytes.position(position + RECORD_HEADER_SIZE);
+            return bytes.slice().asCharBuffer();
+        }
+
+        /**
+         * Make sure the window contains a range of written records, which are mostly read in
+         * order, e.g. when a page of entries is loaded.
+         *
+         * @return Whether the range fits into the window.
+         */
+        private boolean readWindow(int offset, int length) throws IOException {
+            if (window != null && offset >= windowOffset && offset + length <= windowOffset + window.limit()) {
+                return true;
+            }
+            if (length > WINDOW_SIZE) {
+                return false;
+            }
+
+            if (window == null) {
+                window = ByteBuffer.allocate(WINDOW_SIZE);
+            }
+            window.clear();
+            window.limit(Math.min(WINDOW_SIZE, numWritten - offset));
+            windowOffset = -1;
+            read(window, offset);
+            windowOffset = offset;
+            return window.limit() >= length;
+        }
+
+        private void read(ByteBuffer target, int offset) throws IOException {
+            while (target.hasRemaining()) {
+                if (channel.read(target, start + offset + target.position()) < 0) {
+                    throw new EOFException("record at " + offset + " is cut");
+                }
+            }
+            target.flip();
+        }
+    }
+
+    /**
+     * Entries changed after a snapshot, by the offsets of their last records.
+     */
+    private static final class Changes {
+
+        // entries from here on were added after the snapshot
+        private final int firstAdded;
+        private int[] added = new int[16];
+        private int numAdded = 0;
+        // entries of the snapshot which were set
+        private final IntMap edited = new IntMap();
+        // records the offsets refer to
+        private Records records;
+
+        private Changes(int firstAdded, Records records) {
+            this.firstAdded = firstAdded;
+            this.records = records;
+        }
+
+        /**
+         * @return Offset of the last record of the entry, -1 if it was not changed.
+         */
+        private int get(int index) {
+            if (index >= firstAdded) {
+                return index - firstAdded < numAdded ? added[index - firstAdded] : -1;
+            }
+            return edited.get(index);
+        }
+
+        /**
+         * Set the record of an entry, the entry after the last one might be added.
+         */
+        private void put(int index, int offset) {
+            if (index < firstAdded) {
+                edited.put(index, offset);
+            } else if (index - firstAdded < numAdded) {
+                added[index - firstAdded] = offset;
+            } else {
+                if (numAdded == added.length) {
+                    added = Arrays.copyOf(added, 2 * numAdded);
+                }
+                added[numAdded++] = offset;
+            }
+        }
+
+        /**
+         * Apply later changes, whose records follow the ones of these changes.
+         *
+         * @param delta Offset of the first record of the later changes.
+         */
+        private void putAll(Changes later, int delta) {
+            for (int i = 0; i < later.edited.keys.length; i++) {
+                if (later.edited.keys[i] >= 0) {
+                    put(later.edited.keys[i], later.edited.values[i] + delta);
+                }
+            }
+            for (int i = 0; i < later.numAdded; i++) {
+                put(later.firstAdded + i, later.added[i] + delta);
+            }
+        }
+
+        /**
+         * Refer to records, which the current records were appended to.
+         *
+         * @param delta Offset of the first current record.
+         */
+        private void move(Records records, int delta) {
+            for (int i = 0; i < edited.keys.length; i++) {
+                if (edited.keys[i] >= 0) {
+                    edited.values[i] += delta;
+                }
+            }
+            for (int i = 0; i < numAdded; i++) {
+                added[i] += delta;
+            }
+            this.records = records;
+        }
+    }
+
+    /**
+     * Map of non-negative int keys to int values, without boxing them.
+     */
+    private static final class IntMap {
+
+        private int[] keys = newKeys(16);
+        private int[] values = new int[16];
+        private int size = 0;
+
+        /**
+         * @return The value, -1 if there is none.
+         */
+        private int get(int key) {
+            final int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                } else if (keys[i] < 0) {
+                    return -1;
+                }
+            }
+        }
+
+        private void put(int key, int value) {
+            if (2 * (size + 1) > keys.length) {
+                grow();
+            }
+
+            final int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                } else if (keys[i] < 0) {
+                    keys[i] = key;
+                    values[i] = value;
+                    size++;
+                    return;
+                }
+            }
+        }
+
+        private void grow() {
+            final int[] oldKeys = keys;
+            final int[] oldValues = values;
+            keys = newKeys(2 * oldKeys.length);
+            values = new int[2 * oldValues.length];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] >= 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int[] newKeys(int capacity) {
+            final int[] keys = new int[capacity];
+            Arrays.fill(keys, -1);
+            return keys;
+        }
+
+        private static int hash(int key) {
+            final int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * Entries of a snapshot, decoded from the mapped file when read.
+     */
+    private static final class Snapshot {
+
+        private final int count;
+        private final IntBuffer offsets;
+        private final CharBuffer chars;
+        // position of the first record
+        private final int end;
+
+        /**
+         * Empty snapshot.
+         */
+        private Snapshot() {
+            count = 0;
+            offsets = IntBuffer.allocate(1);
+            chars = CharBuffer.allocate(0);
+            end = 0;
+        }
+
+        private Snapshot(ByteBuffer buffer) throws IOException {
+
+            if (buffer.limit() < HEADER_SIZE + 4 || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("no entry log");
+            }
+
+            count = buffer.getInt(8);
+            final int charsStart = HEADER_SIZE + 4 * (count + 1);
+            if (count < 0 || charsStart > buffer.limit()) {
+                throw new IOException("corrupt entry log");
+            }
+
+            buffer.position(HEADER_SIZE);
+            offsets = buffer.slice().asIntBuffer();
+            final int numChars = offsets.get(count);
+            end = charsStart + 2 * numChars;
+            if (numChars < 0 || end > buffer.limit()) {
+                throw new IOException("corrupt entry log");
+            }
+
+            buffer.position(charsStart);
+            chars = buffer.slice().asCharBuffer();
+            buffer.position(0);
+        }
+
+        private int getLength(int index) {
+            return offsets.get(index + 1) - offsets.get(index);
+        }
+
+        private CharSequence get(int index) {
+            // absolute, so that views of several threads do not interfere
+            return chars.subSequence(offsets.get(index), offsets.get(index + 1));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package mobileapps.aau.at.ab02.listview;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Searches the entries of an adapter in the background.
+ *
+ * <p>
+ *     The search keeps a {@link TrigramIndex} of its own. It is built from the entries with the
+ *     first query and then updated with each change of the entries. Building, updates and
+ *     queries are executed one after the other on a background thread.
+ *     Starting a query cancels all earlier ones, only the results of the latest query are
+ *     published on the UI thread.
+ * </p>
+ */
+final class EntrySearch {
+
+    private static final String TAG = "EntrySearch";
+
+    // shared by all searches, since only one list is shown at a time
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor();
+
+    /**
+     * Receives the results of a query on the UI thread.
+     */
+    interface Listener {
+
+        /**
+         * @param query   Text searched for.
+         * @param matches Sorted positions of the matching entries.
+         */
+        void onResults(String query, int[] matches);
+    }
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Listener listener;
+
+    // only used on the executor
+    private final TrigramIndex index = new TrigramIndex();
+
+    // incremented by each query and cancellation
+    private final AtomicInteger generation = new AtomicInteger();
+
+    // changes are only passed to the index once it is built
+    private boolean indexed = false;
+
+    EntrySearch(Listener listener) {
+        this.listener = listener;
+    }
+
+    boolean isIndexed() {
+        return indexed;
+    }
+
+    /**
+     * Build the index in the background.
+     *
+     * @param source Entries to index. Either thread safe or not changed any more, further
+     *               changes have to be passed to the search.
+     */
+    void index(final EntrySource source) {
+        indexed = true;
+        final int size = source.size();
+        EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                final EntryStore texts = new EntryStore(size, 0);
+                for (int i = 0; i < size; i++) {
+                    texts.add(source.get(i));
+                }
+                index.addAll(texts);
+            }
+        });
+    }
+
+    void addAll(List<? extends CharSequence> texts) {
+        if (!indexed) {
+            return;
+        }
+
+        // copied, texts of the caller might change before the index is updated
+        final EntryStore copy = EntryStore.of(texts);
+        EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                index.addAll(copy);
+            }
+        });
+    }
+
+    void set(final int position, CharSequence text) {
+        if (!indexed) {
+            return;
+        }
+
+        final String copy = text.toString();
+        EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                index.set(position, copy);
+            }
+        });
+    }
+
+    /**
+     * Remove all entries, cancelling all queries. The index is built again with the next query.
+     */
+    void clear() {
+        cancel();
+        indexed = false;
+        EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                index.clear();
+            }
+        });
+    }
+
+    /**
+     * Start a query, cancelling all earlier ones.
+     */
+    void search(CharSequence query) {
+        final String text = query.toString();
+        final int queryGeneration = generation.incrementAndGet();
+        final long startNanos = System.nanoTime();
+
+        final TrigramIndex.Cancellation cancellation = new TrigramIndex.Cancellation() {
+            @Override
+            public boolean isCancelled() {
+                return generation.get() != queryGeneration;
+            }
+        };
+
+        EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (cancellation.isCancelled()) {
+                    return;
+                }
+
+                final int[] matches = index.search(text, cancellation);
+                if (matches == null) {
+                    return;
+                }
+
+                handler.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        // a later query might have been started meanwhile
+                        if (!cancellation.isCancelled()) {
+                            Log.d(TAG, String.format("%d matches of \"%s\" after %.2f ms",
+                                    matches.length, text, (System.nanoTime() - startNanos) / 1e6));
+                            listener.onResults(text, matches);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Cancel all queries, their results are not published any more.
+     */
+    void cancel() {
+        generation.incrementAndGet();
+    }
+}
@@ -0,0 +1,23 @@
+package mobileapps.aau.at.ab02.listview;
+
+/**
+ * Storage of the entries shown by a {@link ListViewAdapter}.
+ *
+ * @see EntryStore
+ * @see EntryLog
+ */
+interface EntrySource {
+
+    int size();
+
+    CharSequence get(int index);
+
+    void add(CharSequence text);
+
+    void set(int index, CharSequence text);
+
+    /**
+     * Remove all entries.
+     */
+    void clear();
+}
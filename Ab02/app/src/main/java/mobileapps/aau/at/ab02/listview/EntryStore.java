@@ -0,0 +1,299 @@
+package mobileapps.aau.at.ab02.listview;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact store of the row texts.
+ *
+ * <p>
+ *     All characters are kept in a single char arena, each entry is a range of it described
+ *     by an index into the start and length arrays. Compared to a list of strings this saves
+ *     the string and array headers of every entry and lets rows be bound directly from the
+ *     arena with {@link android.widget.TextView#setText(char[], int, int)}.
+ * </p>
+ *
+ * <p>
+ *     Updating an entry with a longer text appends the new text and leaves the old characters
+ *     unused, the arena is compacted once more than half of it is unused.
+ * </p>
+ */
+final class EntryStore implements EntrySource {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int DEFAULT_CHARS_PER_ENTRY = 16;
+
+    private char[] chars;
+    private int numChars = 0;
+    // characters in the arena which no entry refers to any more
+    private int numUnusedChars = 0;
+
+    private int[] starts;
+    private int[] lengths;
+    private int size = 0;
+
+    EntryStore() {
+        this(DEFAULT_CAPACITY, DEFAULT_CAPACITY * DEFAULT_CHARS_PER_ENTRY);
+    }
+
+    /**
+     * @param capacity     Number of entries the store can hold without growing.
+     * @param charCapacity Number of characters the store can hold without growing.
+     */
+    EntryStore(int capacity, int charCapacity) {
+
+        if (capacity < 0 || charCapacity < 0) {
+            throw new IllegalArgumentException("capacity < 0 || charCapacity < 0");
+        }
+
+        chars = new char[charCapacity];
+        starts = new int[capacity];
+        lengths = new int[capacity];
+    }
+
+    /**
+     * Create a store holding the given texts.
+     */
+    static EntryStore of(List<? extends CharSequence> texts) {
+        EntryStore store = new EntryStore(texts.size(), totalLength(texts));
+        store.addAll(texts);
+        return store;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the text of an entry as new string.
+     */
+    @Override
+    public String get(int index) {
+        checkIndex(index);
+        return new String(chars, starts[index], lengths[index]);
+    }
+
+    /**
+     * Get the char arena, only valid until the store is modified.
+     */
+    char[] getChars() {
+        return chars;
+    }
+
+    /**
+     * Get the start of an entry in the char arena.
+     */
+    int getStart(int index) {
+        checkIndex(index);
+        return starts[index];
+    }
+
+    int getLength(int index) {
+        checkIndex(index);
+        return lengths[index];
+    }
+
+    boolean isEmpty(int index) {
+        return getLength(index) == 0;
+    }
+
+    /**
+     * Check whether an entry of this store has the same text as an entry of another store.
+     */
+    boolean contentEquals(int index, EntryStore other, int otherIndex) {
+        checkIndex(index);
+        other.checkIndex(otherIndex);
+
+        final int length = lengths[index];
+        if (length != other.lengths[otherIndex]) {
+            return false;
+        }
+
+        final int start = starts[index];
+        final int otherStart = other.starts[otherIndex];
+        for (int i = 0; i < length; i++) {
+            if (chars[start + i] != other.chars[otherStart + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void add(CharSequence text) {
+        ensureCapacity(size + 1, numChars + text.length());
+        starts[size] = append(text);
+        lengths[size] = text.length();
+        size++;
+    }
+
+    /**
+     * Add several entries, growing the store at most once.
+     */
+    void addAll(List<? extends CharSequence> texts) {
+        final int count = texts.size();
+        ensureCapacity(size + count, numChars + totalLength(texts));
+
+        for (int i = 0; i < count; i++) {
+            final CharSequence text = texts.get(i);
+            starts[size] = append(text);
+            lengths[size] = text.length();
+            size++;
+        }
+    }
+
+    /**
+     * Add all entries of another store.
+     */
+    void addAll(EntryStore other) {
+        ensureCapacity(size + other.size, numChars + other.numChars - other.numUnusedChars);
+
+        for (int i = 0; i < other.size; i++) {
+            System.arraycopy(other.chars, other.starts[i], chars, numChars, other.lengths[i]);
+            starts[size] = numChars;
+            lengths[size] = other.lengths[i];
+            numChars += other.lengths[i];
+            size++;
+        }
+    }
+
+    @Override
+    public void set(int index, CharSequence text) {
+        checkIndex(index);
+        replace(index, text);
+        compactIfWasteful();
+    }
+
+    /**
+     * Remove all entries, keeping the capacity.
+     */
+    @Override
+    public void clear() {
+        size = 0;
+        numChars = 0;
+        numUnusedChars = 0;
+    }
+
+    /**
+     * Replace the texts of consecutive entries, compacting the arena at most once.
+     *
+     * @param from  Index of the first entry to replace.
+     * @param texts New texts of the entries starting at <code>from</code>.
+     */
+    void setAll(int from, List<? extends CharSequence> texts) {
+
+        if (from < 0 || from + texts.size() > size) {
+            throw new IndexOutOfBoundsException("from: " + from + ", count: " + texts.size() + ", size: " + size);
+        }
+
+        for (int i = 0; i < texts.size(); i++) {
+            replace(from + i, texts.get(i));
+        }
+        compactIfWasteful();
+    }
+
+    /**
+     * Approximate number of bytes used by the arrays of the store.
+     */
+    long getFootprint() {
+        return 2L * chars.length + 4L * starts.length + 4L * lengths.length;
+    }
+
+    private void replace(int index, CharSequence text) {
+        final int length = text.length();
+
+        if (length <= lengths[index]) {
+            // fits into the characters of the old text
+            final int start = starts[index];
+            for (int i = 0; i < length; i++) {
+                chars[start + i] = text.charAt(i);
+            }
+            numUnusedChars += lengths[index] - length;
+        } else {
+            ensureCapacity(size, numChars + length);
+            numUnusedChars += lengths[index];
+            starts[index] = append(text);
+        }
+        lengths[index] = length;
+    }
+
+    private int append(CharSequence text) {
+        final int start = numChars;
+        final int length = text.length();
+
+        if (text instanceof String) {
+            ((String) text).getChars(0, length, chars, start);
+        } else if (text instanceof CharBuffer) {
+            // e.g. entries of a mapped file, copied without a call per char
+            ((CharBuffer) text).duplicate().get(chars, start, length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                chars[start + i] = text.charAt(i);
+            }
+        }
+        numChars += length;
+        return start;
+    }
+
+    private void ensureCapacity(int capacity, int charCapacity) {
+
+        if (capacity > starts.length) {
+            final int newCapacity = Math.max(capacity, starts.length + (starts.length >> 1));
+            starts = Arrays.copyOf(starts, newCapacity);
+            lengths = Arrays.copyOf(lengths, newCapacity);
+        }
+
+        if (charCapacity > chars.length) {
+            // unused characters are dropped anyway when the arena has to be copied
+            if (numUnusedChars > 0 && charCapacity - numUnusedChars <= chars.length) {
+                compact();
+            } else {
+                compact(Math.max(charCapacity - numUnusedChars, chars.length + (chars.length >> 1)));
+            }
+        }
+    }
+
+    private void compactIfWasteful() {
+        if (numUnusedChars > numChars / 2) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        compact(chars.length);
+    }
+
+    /**
+     * Move all entries to the front of a new arena, in order of their index.
+     */
+    private void compact(int charCapacity) {
+        final char[] newChars = new char[charCapacity];
+
+        int numNewChars = 0;
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(chars, starts[i], newChars, numNewChars, lengths[i]);
+            starts[i] = numNewChars;
+            numNewChars += lengths[i];
+        }
+
+        chars = newChars;
+        numChars = numNewChars;
+        numUnusedChars = 0;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+    }
+
+    private static int totalLength(List<? extends CharSequence> texts) {
+        int length = 0;
+        for (int i = 0; i < texts.size(); i++) {
+            length += texts.get(i).length();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,28 @@
+package mobileapps.aau.at.ab02.listview;
+
+/**
+ * Checks texts before they become entries, shared by the editor of a row and the import.
+ */
+final class EntryValidator {
+
+    private EntryValidator() {
+        // utility class
+    }
+
+    /**
+     * Check whether a text is a valid entry, i.e. it is not empty after trimming.
+     *
+     * <p>
+     *     Checked without creating a trimmed copy, since imports check every line.
+     * </p>
+     */
+    static boolean isValid(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            // same characters as trimmed by String.trim()
+            if (text.charAt(i) > ' ') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
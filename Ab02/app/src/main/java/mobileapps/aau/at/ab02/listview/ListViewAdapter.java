@@ -2,42 +2,91 @@ package mobileapps.aau.at.ab02.listview;
 
 import android.app.Activity;
 import android.app.AlertDialog;
-import android.content.Context;
 import android.content.DialogInterface;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
-import android.text.TextUtils;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.widget.RecyclerView;
 import android.view.KeyEvent;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.inputmethod.EditorInfo;
-import android.view.inputmethod.InputMethodManager;
-import android.widget.ArrayAdapter;
 import android.widget.EditText;
 import android.widget.ImageView;
 import android.widget.TextView;
 
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import mobileapps.aau.at.ab02.R;
 
 /**
- * Custom adapter for the list view.
+ * Custom adapter for the list.
+ *
+ * <p>
+ *     The adapter owns the only copy of the rows, kept in an {@link EntryStore} or, once set,
+ *     an {@link EntryLog}. Rows are read through {@link PagedEntries}, which only keeps the
+ *     pages of entries around the rows shown, and are bound from there without creating
+ *     strings. Each change notifies exactly the rows affected, so that e.g. editing a row
+ *     only binds that row again. Replacing all rows computes the differences to the current
+ *     rows, unless they are kept in a log.
+ * </p>
+ *
+ * <p>
+ *     While searching, only the rows matching the query are shown and positions refer to
+ *     these rows. Changes of more than a single row end the search.
+ * </p>
  */
-public class ListViewAdapter extends ArrayAdapter<String> {
+public class ListViewAdapter extends RecyclerView.Adapter<ListViewAdapter.ViewHolder> {
 
+    // pages of a log are loaded in the background, those in memory right away
+    private static final ExecutorService PAGE_LOADER = Executors.newSingleThreadExecutor();
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            command.run();
+        }
+    };
+
+    private final Activity context;
     private final LayoutInflater layoutInflater;
-    private final ArrayList<String> values = new ArrayList<>();
     private RowOnClickListener onClickListener;
 
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final PagedEntries entries = new PagedEntries(new Executor() {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            handler.post(command);
+        }
+    });
+    // source of the entries until a log is set
+    private EntryStore memoryEntries = new EntryStore();
+    private EntryLog entryLog;
+
+    // entries shown while searching, all entries are shown if null
+    private int[] matches;
+
+    private final EntrySearch search = new EntrySearch(new EntrySearch.Listener() {
+        @Override
+        public void onResults(String query, int[] matches) {
+            ListViewAdapter.this.matches = matches;
+            notifyDataSetChanged();
+        }
+    });
+
     public ListViewAdapter(@NonNull Activity context) {
         this(context, new NullRowOnClickListener());
     }
 
     public ListViewAdapter(@NonNull Activity context, RowOnClickListener onClickListener) {
-        super(context, R.layout.listview_layout, R.id.listViewLabel, new ArrayList<String>());
-
+        this.context = context;
         this.layoutInflater = context.getLayoutInflater();
+        this.entries.setSource(memoryEntries, DIRECT);
         setRowOnClickListener(onClickListener);
     }
 
@@ -49,99 +98,247 @@ public class ListViewAdapter extends ArrayAdapter<String> {
         this.onClickListener = onClickListener;
     }
 
-    @Override
-    public View getView(final int position, View convertView, ViewGroup parent) {
+    /**
+     * Show the rows of a log instead of the current rows and write all further changes to it.
+     */
+    public void setEntryLog(EntryLog entryLog) {
 
-        View rowView = convertView;
-        if (rowView == null) {
-            rowView = layoutInflater.inflate(R.layout.listview_layout, parent, false);
+        if (entryLog == null) {
+            throw new IllegalArgumentException("entryLog is null");
         }
 
+        endSearch();
+        search.clear();
+        this.entryLog = entryLog;
+        memoryEntries = null;
+        entries.setSource(entryLog, PAGE_LOADER);
+        notifyDataSetChanged();
+    }
 
-        if (rowView.getTag() == null) {
-            ViewHolder viewHolder = new ViewHolder();
-            viewHolder.text = rowView.findViewById(R.id.listViewLabel);
-            viewHolder.image = rowView.findViewById(R.id.listViewIcon);
-            viewHolder.edit = rowView.findViewById(R.id.editText);
-            rowView.setTag(viewHolder);
+    /**
+     * Show only the rows containing a text, ignoring case.
+     *
+     * <p>
+     *     The rows are searched in the background and shown once found, unless another
+     *     search was started meanwhile. An empty query shows all rows again.
+     * </p>
+     */
+    public void search(CharSequence query) {
+        if (query.length() == 0) {
+            endSearch();
+            return;
         }
 
-        final ViewHolder viewHolder = (ViewHolder)rowView.getTag();
-
-        final String text = getItem(position);
-        if (text == null || text.isEmpty()) {
-            viewHolder.editMode = true;
-            viewHolder.text.setVisibility(View.INVISIBLE);
-            viewHolder.image.setVisibility(View.INVISIBLE);
-            viewHolder.edit.setVisibility(View.VISIBLE);
-            viewHolder.edit.setFocusableInTouchMode(true);
-            viewHolder.edit.setOnEditorActionListener(new TextView.OnEditorActionListener() {
-                @Override
-                public boolean onEditorAction(TextView v, int actionId, KeyEvent event) {
-                    String input;
-
-
-                    if(actionId == EditorInfo.IME_ACTION_DONE)
-                    {
-                        input= v.getText().toString();
-                        if (TextUtils.isEmpty(input.trim())) {
-                            AlertDialog.Builder builder = new AlertDialog.Builder(getContext());
-                            builder.setMessage("Input must not be empty.");
-                            builder.setCancelable(true);
-                            builder.setPositiveButton("OK", new DialogInterface.OnClickListener() {
-                                @Override
-                                public void onClick(DialogInterface dialog, int which) {
-                                    dialog.cancel();
-                                }
-                            });
-                            builder.create().show();
-                        } else {
-                            // this is a complete hack, but i guess that's the Android way :)
-                            values.set(position, input); // update values in our own backing field
-                            setNotifyOnChange(false); // temporarily disable notifications
-                            clear(); // remove all old records
-                            addAll(values); // add all records
-                            setNotifyOnChange(true);
-                            notifyDataSetChanged();
-                        }
-                    }
-                    return false;
-                }
-            });
-            if (!viewHolder.edit.hasFocus()) {
-                if (viewHolder.edit.requestFocus()) {
-                    viewHolder.edit.setCursorVisible(true);
-                }
+        if (!search.isIndexed()) {
+            // entries in memory are not thread safe, so the index is built from a copy
+            if (entryLog != null) {
+                search.index(entryLog);
+            } else {
+                EntryStore copy = new EntryStore(memoryEntries.size(), 0);
+                copy.addAll(memoryEntries);
+                search.index(copy);
             }
+        }
+        search.search(query);
+    }
 
-        } else {
-            viewHolder.editMode = false;
-            viewHolder.text.setVisibility(View.VISIBLE);
-            viewHolder.image.setVisibility(View.VISIBLE);
-            viewHolder.edit.setVisibility(View.INVISIBLE);
-            viewHolder.text.setText(text);
-            rowView.setClickable(true);
-            rowView.setOnClickListener(new View.OnClickListener() {
-                @Override
-                public void onClick(View v) {
-                    String s = viewHolder.text.getText().toString();
-                    onClickListener.onClick(s);
-                }
-            });
+    @Override
+    public ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        return new ViewHolder(layoutInflater.inflate(R.layout.listview_layout, parent, false));
+    }
+
+    @Override
+    public void onBindViewHolder(ViewHolder viewHolder, int position) {
+        // listeners are attached once per holder, binding only updates the views
+        entries.onBind(toEntry(position));
+        viewHolder.bind(position);
+    }
+
+    @Override
+    public int getItemCount() {
+        return matches != null ? matches.length : entries.size();
+    }
+
+    /**
+     * Get the text of a row.
+     */
+    public String getItem(int position) {
+        return entries.get(toEntry(position));
+    }
+
+    /**
+     * Change the text of a row, only this row is bound again.
+     */
+    public void setItem(int position, CharSequence text) {
+        final int entry = toEntry(position);
+        entries.set(entry, text);
+        search.set(entry, text);
+        notifyItemChanged(position);
+    }
+
+    /**
+     * Change the texts of consecutive rows.
+     *
+     * @param position First row to change.
+     * @param texts    New texts of the rows starting at <code>position</code>.
+     */
+    public void setItems(int position, List<? extends CharSequence> texts) {
+        endSearch();
+        for (int i = 0; i < texts.size(); i++) {
+            entries.set(position + i, texts.get(i));
+            search.set(position + i, texts.get(i));
         }
+        notifyItemRangeChanged(position, texts.size());
+    }
 
-        return rowView;
+    /**
+     * Replace all rows, only the rows which actually changed are bound again.
+     */
+    public void setItems(List<? extends CharSequence> items) {
+        endSearch();
+        search.clear();
+
+        if (entryLog != null) {
+            // rows of a log are not all in memory to compare them
+            entries.clear();
+            for (int i = 0; i < items.size(); i++) {
+                entries.add(items.get(i));
+            }
+            notifyDataSetChanged();
+            return;
+        }
+
+        EntryStore newEntries = EntryStore.of(items);
+        DiffUtil.DiffResult diff = DiffUtil.calculateDiff(new TextDiffCallback(memoryEntries, newEntries));
+        memoryEntries = newEntries;
+        entries.setSource(newEntries, DIRECT);
+        diff.dispatchUpdatesTo(this);
+    }
+
+    /**
+     * Append rows at the end.
+     */
+    public void addItems(List<? extends CharSequence> items) {
+        endSearch();
+        final int position = entries.size();
+        for (int i = 0; i < items.size(); i++) {
+            entries.add(items.get(i));
+        }
+        search.addAll(items);
+        notifyItemRangeInserted(position, items.size());
     }
 
     public void addNewItem() {
-        values.add("");
-        add(""); // add pseudo element at the end
+        endSearch();
+        entries.add(""); // add pseudo element at the end
+        search.addAll(Collections.singletonList(""));
+        notifyItemInserted(entries.size() - 1);
+    }
+
+    /**
+     * Show all rows again, results of running searches are dropped.
+     */
+    private void endSearch() {
+        search.cancel();
+        if (matches != null) {
+            matches = null;
+            notifyDataSetChanged();
+        }
     }
 
-    private static final class ViewHolder {
-        public TextView text;
-        EditText edit;
-        ImageView image;
+    private int toEntry(int position) {
+        return matches != null ? matches[position] : position;
+    }
+
+    /**
+     * Views of a row together with their listeners.
+     *
+     * <p>
+     *     Listeners are created once when the holder is created and look up the row they
+     *     belong to when an event occurs, since the holder might have been bound to another
+     *     row or the row might have moved meanwhile.
+     * </p>
+     */
+    final class ViewHolder extends RecyclerView.ViewHolder
+            implements View.OnClickListener, TextView.OnEditorActionListener {
+
+        final TextView text;
+        final EditText edit;
+        final ImageView image;
         boolean editMode = false;
+
+        ViewHolder(View itemView) {
+            super(itemView);
+            text = itemView.findViewById(R.id.listViewLabel);
+            image = itemView.findViewById(R.id.listViewIcon);
+            edit = itemView.findViewById(R.id.editText);
+
+            itemView.setOnClickListener(this);
+            edit.setOnEditorActionListener(this);
+        }
+
+        private void bind(int position) {
+            final int entry = toEntry(position);
+
+            if (entries.isEmpty(entry)) {
+                editMode = true;
+                text.setVisibility(View.INVISIBLE);
+                image.setVisibility(View.INVISIBLE);
+                edit.setVisibility(View.VISIBLE);
+                edit.setText("");
+                edit.setFocusableInTouchMode(true);
+                itemView.setClickable(false);
+                if (!edit.hasFocus()) {
+                    if (edit.requestFocus()) {
+                        edit.setCursorVisible(true);
+                    }
+                }
+
+            } else {
+                editMode = false;
+                text.setVisibility(View.VISIBLE);
+                image.setVisibility(View.VISIBLE);
+                edit.setVisibility(View.INVISIBLE);
+                text.setText(entries.getChars(entry), entries.getStart(entry), entries.getLength(entry));
+                itemView.setClickable(true);
+            }
+        }
+
+        @Override
+        public void onClick(View v) {
+            final int position = getAdapterPosition();
+            if (!editMode && position != RecyclerView.NO_POSITION) {
+                onClickListener.onClick(getItem(position));
+            }
+        }
+
+        @Override
+        public boolean onEditorAction(TextView v, int actionId, KeyEvent event) {
+            String input;
+
+
+            if(actionId == EditorInfo.IME_ACTION_DONE)
+            {
+                input= v.getText().toString();
+                if (!EntryValidator.isValid(input)) {
+                    AlertDialog.Builder builder = new AlertDialog.Builder(context);
+                    builder.setMessage("Input must not be empty.");
+                    builder.setCancelable(true);
+                    builder.setPositiveButton("OK", new DialogInterface.OnClickListener() {
+                        @Override
+                        public void onClick(DialogInterface dialog, int which) {
+                            dialog.cancel();
+                        }
+                    });
+                    builder.create().show();
+                } else {
+                    final int position = getAdapterPosition();
+                    if (position != RecyclerView.NO_POSITION) {
+                        setItem(position, input);
+                    }
+                }
+            }
+            return false;
+        }
     }
 }
@@ -0,0 +1,237 @@
+package mobileapps.aau.at.ab02.listview;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+/**
+ * Window of the entries of an {@link EntrySource} around the rows shown.
+ *
+ * <p>
+ *     Entries are loaded in pages of {@link #PAGE_SIZE} consecutive entries, each kept in its
+ *     own {@link EntryStore}. A page is loaded when one of its rows is bound, and the next page
+ *     in scroll direction is loaded in the background once the rows bound get close to the end
+ *     of a page. At most {@link #MAX_PAGES} pages are kept, the page farthest from the one
+ *     needed is dropped first, so the memory does not depend on the number of entries.
+ * </p>
+ *
+ * <p>
+ *     All methods must be called on the same thread. Changes go through the window to the source,
+ *     so that loaded pages stay up to date.
+ * </p>
+ */
+final class PagedEntries {
+
+    static final int PAGE_SIZE = 256;
+    static final int MAX_PAGES = 8;
+
+    // initial capacity of a page
+    private static final int CHARS_PER_ENTRY = 16;
+
+    // rows before the end of a page, at which the next page is loaded
+    private static final int PREFETCH_DISTANCE = PAGE_SIZE / 2;
+
+    private final Executor callbackExecutor;
+
+    private EntrySource source;
+    private Executor loader;
+
+    // loaded pages by their number, null if not loaded
+    private EntryStore[] pages = new EntryStore[0];
+    private final int[] loadedPages = new int[MAX_PAGES];
+    private int numLoadedPages = 0;
+
+    // incremented by each change, pages loaded before are dropped
+    private int version = 0;
+    private int prefetchedPage = -1;
+    private int lastPosition = 0;
+
+    /**
+     * @param callbackExecutor Executes the delivery of pages loaded in the background on the
+     *                         thread using the window.
+     */
+    PagedEntries(Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Show the entries of another source.
+     *
+     * @param source Entries to show.
+     * @param loader Loads pages in the background. Unless the source is thread safe, this must
+     *               execute on the thread using the window.
+     */
+    void setSource(EntrySource source, Executor loader) {
+        this.source = source;
+        this.loader = loader;
+        dropPages();
+    }
+
+    int size() {
+        return source.size();
+    }
+
+    /**
+     * Get the text of an entry as new string.
+     */
+    String get(int position) {
+        return page(position).get(position % PAGE_SIZE);
+    }
+
+    /**
+     * Get the chars of the page of an entry, only valid until the window is used again.
+     */
+    char[] getChars(int position) {
+        return page(position).getChars();
+    }
+
+    int getStart(int position) {
+        return page(position).getStart(position % PAGE_SIZE);
+    }
+
+    int getLength(int position) {
+        return page(position).getLength(position % PAGE_SIZE);
+    }
+
+    boolean isEmpty(int position) {
+        return page(position).isEmpty(position % PAGE_SIZE);
+    }
+
+    /**
+     * Load the page of a row about to be shown and prefetch the next page in scroll direction.
+     */
+    void onBind(int position) {
+        page(position);
+
+        final int pageNumber = position / PAGE_SIZE;
+        final int offset = position % PAGE_SIZE;
+        if (position > lastPosition && offset >= PAGE_SIZE - PREFETCH_DISTANCE) {
+            prefetch(pageNumber + 1);
+        } else if (position < lastPosition && offset < PREFETCH_DISTANCE) {
+            prefetch(pageNumber - 1);
+        }
+        lastPosition = position;
+    }
+
+    void set(int position, CharSequence text) {
+        source.set(position, text);
+        version++;
+
+        final int pageNumber = position / PAGE_SIZE;
+        if (pageNumber < pages.length && pages[pageNumber] != null) {
+            pages[pageNumber].set(position % PAGE_SIZE, text);
+        }
+    }
+
+    void add(CharSequence text) {
+        source.add(text);
+        version++;
+
+        // the last page always contains all entries up to the end
+        final int pageNumber = (source.size() - 1) / PAGE_SIZE;
+        if (pageNumber < pages.length && pages[pageNumber] != null) {
+            pages[pageNumber].add(text);
+        }
+    }
+
+    void clear() {
+        source.clear();
+        dropPages();
+    }
+
+    /**
+     * Number of pages currently loaded.
+     */
+    int getNumLoadedPages() {
+        return numLoadedPages;
+    }
+
+    private EntryStore page(int position) {
+
+        if (position < 0 || position >= source.size()) {
+            throw new IndexOutOfBoundsException("position: " + position + ", size: " + source.size());
+        }
+
+        final int pageNumber = position / PAGE_SIZE;
+        if (pageNumber < pages.length && pages[pageNumber] != null) {
+            return pages[pageNumber];
+        }
+
+        final EntryStore page = load(source, pageNumber, source.size());
+        install(pageNumber, page);
+        return page;
+    }
+
+    private void prefetch(final int pageNumber) {
+
+        if (pageNumber < 0 || pageNumber * PAGE_SIZE >= source.size() || pageNumber == prefetchedPage
+                || (pageNumber < pages.length && pages[pageNumber] != null)) {
+            return;
+        }
+
+        prefetchedPage = pageNumber;
+        final int loadVersion = version;
+        final EntrySource loadSource = source;
+        final int size = source.size();
+
+        loader.execute(new Runnable() {
+            @Override
+            public void run() {
+                final EntryStore page = load(loadSource, pageNumber, size);
+
+                callbackExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (prefetchedPage == pageNumber) {
+                            prefetchedPage = -1;
+                        }
+                        // entries might have changed or the page was needed earlier
+                        if (version == loadVersion
+                                && (pageNumber >= pages.length || pages[pageNumber] == null)) {
+                            install(pageNumber, page);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void install(int pageNumber, EntryStore page) {
+
+        if (pageNumber >= pages.length) {
+            pages = Arrays.copyOf(pages, Math.max(pageNumber + 1, 2 * pages.length));
+        }
+
+        if (numLoadedPages == MAX_PAGES) {
+            // drop the page farthest away
+            int farthest = 0;
+            for (int i = 1; i < numLoadedPages; i++) {
+                if (Math.abs(loadedPages[i] - pageNumber) > Math.abs(loadedPages[farthest] - pageNumber)) {
+                    farthest = i;
+                }
+            }
+            pages[loadedPages[farthest]] = null;
+            loadedPages[farthest] = loadedPages[--numLoadedPages];
+        }
+
+        pages[pageNumber] = page;
+        loadedPages[numLoadedPages++] = pageNumber;
+    }
+
+    private void dropPages() {
+        Arrays.fill(pages, null);
+        numLoadedPages = 0;
+        prefetchedPage = -1;
+        version++;
+    }
+
+    private static EntryStore load(EntrySource source, int pageNumber, int size) {
+        final int from = pageNumber * PAGE_SIZE;
+        final int to = Math.min(size, from + PAGE_SIZE);
+
+        final EntryStore page = new EntryStore(PAGE_SIZE, PAGE_SIZE * CHARS_PER_ENTRY);
+        for (int i = from; i < to; i++) {
+            page.add(source.get(i));
+        }
+        return page;
+    }
+}
@@ -0,0 +1,42 @@
+package mobileapps.aau.at.ab02.listview;
+
+import android.support.v7.util.DiffUtil;
+
+/**
+ * Computes the differences between two stores of row texts.
+ *
+ * <p>
+ *     Rows have no identity besides their text, therefore a row with a changed text
+ *     is reported as removed and inserted at the same position.
+ * </p>
+ */
+final class TextDiffCallback extends DiffUtil.Callback {
+
+    private final EntryStore oldItems;
+    private final EntryStore newItems;
+
+    TextDiffCallback(EntryStore oldItems, EntryStore newItems) {
+        this.oldItems = oldItems;
+        this.newItems = newItems;
+    }
+
+    @Override
+    public int getOldListSize() {
+        return oldItems.size();
+    }
+
+    @Override
+    public int getNewListSize() {
+        return newItems.size();
+    }
+
+    @Override
+    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+        return oldItems.contentEquals(oldItemPosition, newItems, newItemPosition);
+    }
+
+    @Override
+    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+        return areItemsTheSame(oldItemPosition, newItemPosition);
+    }
+}
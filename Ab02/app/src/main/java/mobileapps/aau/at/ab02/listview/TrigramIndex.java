@@ -0,0 +1,255 @@
+package mobileapps.aau.at.ab02.listview;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Index for finding entries containing a text, ignoring case.
+ *
+ * <p>
+ *     For each trigram, i.e. three consecutive characters, the index keeps the sorted ids of
+ *     the entries containing it. A query of at least three characters only looks at entries
+ *     containing all of its trigrams, which are then checked for actually containing the
+ *     query. Shorter queries check all entries.
+ * </p>
+ *
+ * <p>
+ *     Entries are identified by their position, the index is updated whenever an entry
+ *     is added or changed. It is not thread safe.
+ * </p>
+ */
+final class TrigramIndex {
+
+    /**
+     * Checked while searching, so that a query which is not needed any more can be stopped.
+     */
+    interface Cancellation {
+        boolean isCancelled();
+    }
+
+    // entries checked between two checks for cancellation
+    private static final int CANCELLATION_INTERVAL = 1024;
+
+    // case folded texts of all entries
+    private EntryStore entries = new EntryStore();
+    private final HashMap<Long, Postings> postings = new HashMap<>();
+
+    int size() {
+        return entries.size();
+    }
+
+    void add(CharSequence text) {
+        final int id = entries.size();
+        entries.add(text);
+        fold(id);
+        addTrigrams(id);
+    }
+
+    void addAll(EntryStore texts) {
+        final int from = entries.size();
+        entries.addAll(texts);
+        for (int id = from; id < entries.size(); id++) {
+            fold(id);
+            addTrigrams(id);
+        }
+    }
+
+    void set(int id, CharSequence text) {
+        removeTrigrams(id);
+        entries.set(id, text);
+        fold(id);
+        addTrigrams(id);
+    }
+
+    void clear() {
+        entries = new EntryStore();
+        postings.clear();
+    }
+
+    /**
+     * Find all entries containing a text, ignoring case.
+     *
+     * @param query        Text to search for.
+     * @param cancellation Checked while searching.
+     * @return Sorted ids of the matching entries or <code>null</code> if the search was cancelled.
+     */
+    int[] search(CharSequence query, Cancellation cancellation) {
+        final char[] folded = new char[query.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = Character.toLowerCase(query.charAt(i));
+        }
+
+        if (folded.length < 3) {
+            return scan(folded, cancellation);
+        }
+
+        // start with the rarest trigram, so that the fewest candidates are checked
+        final Postings[] queryPostings = new Postings[folded.length - 2];
+        for (int i = 0; i < queryPostings.length; i++) {
+            queryPostings[i] = postings.get(trigram(folded[i], folded[i + 1], folded[i + 2]));
+            if (queryPostings[i] == null) {
+                return new int[0];
+            }
+        }
+        Postings rarest = queryPostings[0];
+        for (Postings p : queryPostings) {
+            if (p.size < rarest.size) {
+                rarest = p;
+            }
+        }
+
+        // candidates are ascending, so the other postings are only walked forward
+        final int[] cursors = new int[queryPostings.length];
+        final int[] matches = new int[rarest.size];
+        int numMatches = 0;
+        candidates:
+        for (int i = 0; i < rarest.size; i++) {
+            if (i % CANCELLATION_INTERVAL == 0 && cancellation.isCancelled()) {
+                return null;
+            }
+
+            final int id = rarest.ids[i];
+            for (int k = 0; k < queryPostings.length; k++) {
+                final Postings p = queryPostings[k];
+                int cursor = cursors[k];
+                while (cursor < p.size && p.ids[cursor] < id) {
+                    cursor++;
+                }
+                cursors[k] = cursor;
+                if (cursor == p.size) {
+                    break candidates;
+                }
+                if (p.ids[cursor] != id) {
+                    continue candidates;
+                }
+            }
+            // trigrams might occur in a different order
+            if (contains(id, folded)) {
+                matches[numMatches++] = id;
+            }
+        }
+        return Arrays.copyOf(matches, numMatches);
+    }
+
+    private int[] scan(char[] folded, Cancellation cancellation) {
+        int[] matches = new int[16];
+        int numMatches = 0;
+
+        for (int id = 0; id < entries.size(); id++) {
+            if (id % CANCELLATION_INTERVAL == 0 && cancellation.isCancelled()) {
+                return null;
+            }
+
+            if (contains(id, folded)) {
+                if (numMatches == matches.length) {
+                    matches = Arrays.copyOf(matches, 2 * numMatches);
+                }
+                matches[numMatches++] = id;
+            }
+        }
+        return Arrays.copyOf(matches, numMatches);
+    }
+
+    private boolean contains(int id, char[] folded) {
+        final char[] chars = entries.getChars();
+        final int start = entries.getStart(id);
+        final int last = start + entries.getLength(id) - folded.length;
+
+        search:
+        for (int i = start; i <= last; i++) {
+            for (int j = 0; j < folded.length; j++) {
+                if (chars[i + j] != folded[j]) {
+                    continue search;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void fold(int id) {
+        final char[] chars = entries.getChars();
+        final int end = entries.getStart(id) + entries.getLength(id);
+        for (int i = entries.getStart(id); i < end; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+    }
+
+    private void addTrigrams(int id) {
+        final char[] chars = entries.getChars();
+        final int end = entries.getStart(id) + entries.getLength(id);
+
+        for (int i = entries.getStart(id); i + 2 < end; i++) {
+            final long key = trigram(chars[i], chars[i + 1], chars[i + 2]);
+            Postings p = postings.get(key);
+            if (p == null) {
+                p = new Postings();
+                postings.put(key, p);
+            }
+            p.add(id);
+        }
+    }
+
+    private void removeTrigrams(int id) {
+        final char[] chars = entries.getChars();
+        final int end = entries.getStart(id) + entries.getLength(id);
+
+        for (int i = entries.getStart(id); i + 2 < end; i++) {
+            final long key = trigram(chars[i], chars[i + 1], chars[i + 2]);
+            final Postings p = postings.get(key);
+            // repeated trigrams are removed by their first occurrence
+            if (p != null && p.remove(id) && p.size == 0) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static long trigram(char c0, char c1, char c2) {
+        return ((long) c0 << 32) | ((long) c1 << 16) | c2;
+    }
+
+    /**
+     * Sorted ids of the entries containing a trigram.
+     */
+    private static final class Postings {
+
+        private int[] ids = new int[4];
+        private int size = 0;
+
+        private void add(int id) {
+
+            // entries are mostly added at the end
+            if (size == 0 || ids[size - 1] < id) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, 2 * size);
+                }
+                ids[size++] = id;
+                return;
+            }
+
+            final int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+
+            final int insertion = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, 2 * size);
+            }
+            System.arraycopy(ids, insertion, ids, insertion + 1, size - insertion);
+            ids[insertion] = id;
+            size++;
+        }
+
+        private boolean remove(int id) {
+            final int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
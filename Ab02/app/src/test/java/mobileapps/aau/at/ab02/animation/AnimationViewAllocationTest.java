@@ -0,0 +1,75 @@
+package mobileapps.aau.at.ab02.animation;
+
+import android.app.Activity;
+import android.content.Intent;
+import android.graphics.Canvas;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import mobileapps.aau.at.testing.AllocationBudget;
+import mobileapps.aau.at.testing.ShadowPlainCanvas;
+
+/**
+ * Allocation budget of the animation frames of {@link AnimationView}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(shadows = ShadowPlainCanvas.class)
+public class AnimationViewAllocationTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+    private static final int NUM_WORDS = 1000;
+
+    // Robolectric's frames are 10 ms apart, so warming up and measuring stays within the animation
+    private static final int NUM_FRAMES = 40;
+
+    private AnimationView view;
+
+    @Before
+    public void setUp() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < NUM_WORDS; i++) {
+            text.append(i % 10 == 9 ? "falling\n" : "word ");
+        }
+
+        Intent intent = new Intent().putExtra("text", text.toString());
+        Activity activity = Robolectric.buildActivity(Activity.class, intent).setup().get();
+
+        // short texts are laid out right away, which starts the animation
+        view = new AnimationView(activity);
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    @Test
+    public void framesDoNotAllocate() throws Exception {
+        final Canvas canvas = new Canvas();
+
+        // the frame callback only invalidates the view and posts itself again, which goes
+        // through Robolectric's scheduler, therefore only drawing the frame is counted
+        new AllocationBudget("AnimationView frame", 0)
+                .setOperations(NUM_FRAMES)
+                .setBaseline(new AllocationBudget.Operation() {
+                    @Override
+                    public void run(int iteration) {
+                        ShadowLooper.runMainLooperOneTask();
+                    }
+                })
+                .check(new AllocationBudget.Operation() {
+                    @Override
+                    public void run(int iteration) {
+                        // words are updated when drawn, Robolectric's View.draw would skip onDraw
+                        ShadowLooper.runMainLooperOneTask();
+                        view.onDraw(canvas);
+                    }
+                });
+    }
+}
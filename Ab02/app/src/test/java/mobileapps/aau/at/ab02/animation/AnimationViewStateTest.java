@@ -0,0 +1,81 @@
+package mobileapps.aau.at.ab02.animation;
+
+import android.app.Activity;
+import android.content.Intent;
+import android.os.Parcelable;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for the state {@link AnimationView} keeps across configuration changes.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class AnimationViewStateTest {
+
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 1920;
+
+    private Activity activity;
+
+    @Before
+    public void setUp() {
+        Intent intent = new Intent().putExtra("text", "a few words\nfalling down");
+        activity = Robolectric.buildActivity(Activity.class, intent).setup().get();
+
+        // otherwise frames posted without delay run right away, until the animation is finished
+        ShadowLooper.pauseMainLooper();
+    }
+
+    @Test
+    public void progressSurvivesTwoConfigurationChanges() throws Exception {
+        AnimationView view = createView(null);
+        for (int i = 0; i < 20; i++) {
+            // Robolectric's frames are 10 ms apart
+            ShadowLooper.runMainLooperOneTask();
+        }
+        AnimationView.SavedState first = (AnimationView.SavedState) view.onSaveInstanceState();
+        assertTrue(first.getAnimationElapsed() > 0);
+
+        // recreated again before the restored animation drew a frame
+        AnimationView.SavedState second = (AnimationView.SavedState) createView(first).onSaveInstanceState();
+        assertEquals(first.getAnimationElapsed(), second.getAnimationElapsed());
+    }
+
+    @Test
+    public void finishedAnimationStaysFinished() throws Exception {
+        AnimationView view = createView(null);
+        for (int i = 0; i < 1000; i++) {
+            ShadowLooper.runMainLooperOneTask();
+        }
+        AnimationView.SavedState first = (AnimationView.SavedState) view.onSaveInstanceState();
+
+        // no frame is posted for a finished animation
+        AnimationView.SavedState second = (AnimationView.SavedState) createView(first).onSaveInstanceState();
+        AnimationView.SavedState third = (AnimationView.SavedState) createView(second).onSaveInstanceState();
+        assertEquals(first.getAnimationElapsed(), third.getAnimationElapsed());
+    }
+
+    /**
+     * Create a view and lay it out, which starts the animation.
+     *
+     * @param state State saved by a previous view, if any.
+     */
+    private AnimationView createView(Parcelable state) {
+        AnimationView view = new AnimationView(activity);
+        if (state != null) {
+            view.onRestoreInstanceState(state);
+        }
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, WIDTH, HEIGHT);
+        return view;
+    }
+}
@@ -0,0 +1,64 @@
+package mobileapps.aau.at.ab02.animation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link FrameStats}.
+ */
+public class FrameStatsTest {
+
+    private static final long FRAME_INTERVAL = 16666667L;
+
+    @Test
+    public void missedVsyncsAreCountedAsDroppedFrames() throws Exception {
+        FrameStats frameStats = new FrameStats(16, FRAME_INTERVAL);
+        frameStats.start();
+
+        frameStats.onFrame(0);
+        frameStats.onFrame(FRAME_INTERVAL);
+        // two vsyncs without a frame
+        frameStats.onFrame(4 * FRAME_INTERVAL);
+        // slightly late frames are not dropped
+        frameStats.onFrame(5 * FRAME_INTERVAL + 1000000L);
+
+        assertEquals(4, frameStats.getFrameCount());
+        assertEquals(2, frameStats.getDroppedFrameCount());
+    }
+
+    @Test
+    public void durationsAreRecordedPerFrame() throws Exception {
+        FrameStats frameStats = new FrameStats(16, FRAME_INTERVAL);
+        frameStats.start();
+
+        frameStats.onFrame(0);
+        frameStats.recordUpdate(2000000L);
+        frameStats.recordDraw(4000000L);
+
+        frameStats.onFrame(FRAME_INTERVAL);
+        frameStats.recordUpdate(6000000L);
+        frameStats.recordDraw(12000000L);
+
+        assertEquals(4000000L, frameStats.getAverageUpdateNanos());
+        assertEquals(6000000L, frameStats.getMaxUpdateNanos());
+        assertEquals(8000000L, frameStats.getAverageDrawNanos());
+        assertEquals(12000000L, frameStats.getMaxDrawNanos());
+        assertEquals(1, frameStats.getSlowFrameCount());
+    }
+
+    @Test
+    public void nothingIsRecordedWhenStopped() throws Exception {
+        FrameStats frameStats = new FrameStats(16, FRAME_INTERVAL);
+        frameStats.onFrame(0);
+        frameStats.recordDraw(1000000L);
+        assertEquals(0, frameStats.getFrameCount());
+
+        frameStats.start();
+        frameStats.onFrame(0);
+        frameStats.stop();
+        frameStats.onFrame(10 * FRAME_INTERVAL);
+        assertEquals(1, frameStats.getFrameCount());
+        assertEquals(0, frameStats.getDroppedFrameCount());
+    }
+}
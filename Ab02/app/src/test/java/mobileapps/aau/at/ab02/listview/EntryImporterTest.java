@@ -0,0 +1,403 @@
+package mobileapps.aau.at.ab02.listview;
+
+import org.junit.Test;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link EntryImporter}, including the throughput of importing a large file.
+ */
+public class EntryImporterTest {
+
+    // about 280 MB
+    private static final int NUM_LINES = 10000000;
+
+    // about 14 MB, going through the log and its compactions
+    private static final int NUM_LOG_LINES = 500000;
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Test
+    public void invalidLinesAreSkipped() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        CountingSink sink = new CountingSink();
+        sink.keepEntries = true;
+
+        String text = "\uFEFFfirst\n\n   \nzweite Zeile \u00e4\u00f6\u00fc\r\n\t\nlast";
+        EntryImporter.Progress progress = new EntryImporter(sink, DIRECT, listener)
+                .run(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), -1);
+
+        assertEquals(3, progress.getNumEntries());
+        assertEquals(3, progress.getNumSkippedLines());
+        assertEquals(-1.0f, progress.getFraction(), 0.0f);
+        assertEquals("first", sink.entries.get(0));
+        assertEquals("zweite Zeile \u00e4\u00f6\u00fc", sink.entries.get(1));
+        assertEquals("last", sink.entries.get(2));
+        assertSame(progress, listener.finished);
+    }
+
+    @Test
+    public void cancelledImportKeepsAddedEntries() throws Exception {
+        final CountingSink sink = new CountingSink();
+        RecordingListener listener = new RecordingListener();
+        final EntryImporter[] importer = new EntryImporter[1];
+        importer[0] = new EntryImporter(new EntryImporter.Sink() {
+            @Override
+            public void addAll(List<String> entries) {
+                sink.addAll(entries);
+                importer[0].cancel();
+            }
+        }, DIRECT, listener);
+
+        EntryImporter.Progress progress = importer[0].run(new InputStream() {
+            private int count = 0;
+
+            @Override
+            public int read() {
+                // endless lines of "x"
+                return count++ % 2 == 0 ? 'x' : '\n';
+            }
+        }, -1);
+
+        assertEquals(EntryImporter.BATCH_SIZE, sink.numEntries);
+        assertEquals(EntryImporter.BATCH_SIZE, progress.getNumEntries());
+        assertNull(listener.finished);
+    }
+
+    @Test
+    public void batchesPostedBeforeCancellingAreDropped() throws Exception {
+        File path = File.createTempFile("entries", ".log");
+        path.delete();
+        try {
+            EntryLog log = EntryLog.open(path);
+            PagedEntries entries = new PagedEntries(DIRECT);
+            entries.setSource(log, DIRECT);
+
+            // the test thread is the UI thread, batches wait in the queue until it takes them
+            final BlockingQueue<Runnable> uiQueue = new LinkedBlockingQueue<>();
+            RecordingListener listener = new RecordingListener();
+            final EntryImporter importer = new EntryImporter(new PagedSink(entries), new Executor() {
+                @Override
+                public void execute(Runnable command) {
+                    uiQueue.add(command);
+                }
+            }, listener);
+
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        importer.run(new InputStream() {
+                            private int count = 0;
+
+                            @Override
+                            public int read() {
+                                // endless lines of "x"
+                                return count++ % 2 == 0 ? 'x' : '\n';
+                            }
+                        }, -1);
+                    } catch (IOException e) {
+                        throw new AssertionError(e);
+                    }
+                }
+            });
+            thread.start();
+
+            uiQueue.take().run();
+            // wait for the next batch to be posted, like the user leaving while it is on its way
+            Runnable posted = uiQueue.take();
+            importer.cancel();
+            posted.run();
+            while (thread.isAlive() || !uiQueue.isEmpty()) {
+                Runnable command = uiQueue.poll(10, TimeUnit.MILLISECONDS);
+                if (command != null) {
+                    command.run();
+                }
+            }
+
+            assertEquals(EntryImporter.BATCH_SIZE, entries.size());
+            assertEquals(EntryImporter.BATCH_SIZE, log.size());
+            assertEquals(1, listener.numProgressReports);
+            assertNull(listener.finished);
+            log.close();
+        } finally {
+            path.delete();
+        }
+    }
+
+    @Test
+    public void detachedImportWaitsUntilAttached() throws Exception {
+        final int numEntries = 5 * EntryImporter.BATCH_SIZE + 10;
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < numEntries; i++) {
+            text.append("x\n");
+        }
+        final byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+
+        // the test thread is the UI thread, batches wait in the queue until it takes them
+        final BlockingQueue<Runnable> uiQueue = new LinkedBlockingQueue<>();
+        CountingSink oldSink = new CountingSink();
+        RecordingListener oldListener = new RecordingListener();
+        final EntryImporter importer = new EntryImporter(oldSink, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                uiQueue.add(command);
+            }
+        }, oldListener);
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    importer.run(new ByteArrayInputStream(bytes), bytes.length);
+                } catch (IOException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        });
+        thread.start();
+
+        uiQueue.take().run();
+        // like the activity being recreated, batches are held until the new one attaches its list
+        importer.detach();
+        for (int i = 0; i < EntryImporter.MAX_PENDING_BATCHES; i++) {
+            uiQueue.take().run();
+        }
+        assertNull(uiQueue.poll(100, TimeUnit.MILLISECONDS));
+        assertEquals(EntryImporter.BATCH_SIZE, oldSink.numEntries);
+        assertEquals(1, oldListener.numProgressReports);
+
+        CountingSink newSink = new CountingSink();
+        RecordingListener newListener = new RecordingListener();
+        importer.attach(newSink, newListener);
+        assertEquals(EntryImporter.MAX_PENDING_BATCHES * EntryImporter.BATCH_SIZE, newSink.numEntries);
+        while (thread.isAlive() || !uiQueue.isEmpty()) {
+            Runnable command = uiQueue.poll(10, TimeUnit.MILLISECONDS);
+            if (command != null) {
+                command.run();
+            }
+        }
+
+        assertEquals(numEntries - EntryImporter.BATCH_SIZE, newSink.numEntries);
+        assertEquals(numEntries, newListener.finished.getNumEntries());
+        assertTrue(newListener.monotonic);
+        assertNull(oldListener.finished);
+    }
+
+    @Test
+    public void importIntoEntryLog() throws Exception {
+        File file = File.createTempFile("entries", ".txt");
+        File path = File.createTempFile("entries", ".log");
+        path.delete();
+        ExecutorService ui = Executors.newSingleThreadExecutor();
+        try {
+            final int numEntries = writeFile(file, NUM_LOG_LINES);
+            final EntryLog log = EntryLog.open(path);
+            final PagedEntries entries = new PagedEntries(ui);
+            ui.submit(new Runnable() {
+                @Override
+                public void run() {
+                    entries.setSource(log, DIRECT);
+                }
+            }).get();
+
+            final RecordingListener listener = new RecordingListener();
+            EntryImporter importer = new EntryImporter(new PagedSink(entries), ui, listener);
+
+            EntryImporter.Progress progress;
+            InputStream in = new FileInputStream(file);
+            try {
+                progress = importer.run(in, file.length());
+            } finally {
+                in.close();
+            }
+
+            // the last batch is still on its way to the UI thread
+            final String last = ui.submit(new Callable<String>() {
+                @Override
+                public String call() {
+                    assertEquals(numEntries, entries.size());
+                    assertEquals(entryText(0), entries.get(0));
+                    // two of ten lines are skipped
+                    assertEquals(entryText(123456), entries.get(98765));
+                    return entries.get(numEntries - 1);
+                }
+            }).get();
+            assertEquals(entryText(NUM_LOG_LINES - 1), last);
+            assertSame(progress, listener.finished);
+            assertTrue(listener.monotonic);
+
+            log.flush();
+            log.close();
+            EntryLog reopened = EntryLog.open(path);
+            try {
+                assertEquals(numEntries, reopened.size());
+                assertEquals(entryText(NUM_LOG_LINES - 1), reopened.get(numEntries - 1).toString());
+            } finally {
+                reopened.close();
+            }
+
+            System.out.println(String.format("import %.1f MB into log: %s", file.length() / 1e6, progress));
+        } finally {
+            ui.shutdown();
+            file.delete();
+            path.delete();
+        }
+    }
+
+    @Test
+    public void importLargeFile() throws Exception {
+        File file = File.createTempFile("entries", ".txt");
+        try {
+            final int numEntries = writeFile(file, NUM_LINES);
+
+            RecordingListener listener = new RecordingListener();
+            CountingSink sink = new CountingSink();
+            EntryImporter importer = new EntryImporter(sink, DIRECT, listener);
+
+            EntryImporter.Progress progress;
+            InputStream in = new FileInputStream(file);
+            try {
+                progress = importer.run(in, file.length());
+            } finally {
+                in.close();
+            }
+
+            assertEquals(numEntries, sink.numEntries);
+            assertEquals(numEntries, progress.getNumEntries());
+            assertEquals(NUM_LINES - numEntries, progress.getNumSkippedLines());
+            assertEquals(file.length(), progress.getBytesRead());
+            assertEquals(1.0f, progress.getFraction(), 0.0f);
+            assertTrue(sink.maxBatchSize <= EntryImporter.BATCH_SIZE);
+            assertTrue(listener.monotonic);
+            assertEquals(numEntries / EntryImporter.BATCH_SIZE, listener.numProgressReports);
+
+            System.out.println(String.format("import %.1f MB: %s", file.length() / 1e6, progress));
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * @return Number of valid lines written.
+     */
+    private static int writeFile(File file, int numLines) throws IOException {
+        int numEntries = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
+                StandardCharsets.UTF_8), 1 << 16);
+        try {
+            writer.write('\uFEFF');
+            for (int i = 0; i < numLines; i++) {
+                if (i % 10 == 3) {
+                    writer.write("\n");
+                } else if (i % 10 == 7) {
+                    writer.write(" \t \n");
+                } else {
+                    writer.write(entryText(i));
+                    writer.write('\n');
+                    numEntries++;
+                }
+            }
+        } finally {
+            writer.close();
+        }
+        return numEntries;
+    }
+
+    private static String entryText(int line) {
+        return "Eintrag Nummer " + line + " \u00e4\u00f6\u00fc \u20ac";
+    }
+
+    /**
+     * Adds the entries like {@link ListViewAdapter#addItems(List)}.
+     */
+    private static final class PagedSink implements EntryImporter.Sink {
+
+        private final PagedEntries entries;
+
+        private PagedSink(PagedEntries entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public void addAll(List<String> entries) {
+            for (int i = 0; i < entries.size(); i++) {
+                this.entries.add(entries.get(i));
+            }
+        }
+    }
+
+    private static final class CountingSink implements EntryImporter.Sink {
+
+        private boolean keepEntries = false;
+        private final List<String> entries = new ArrayList<>();
+        private int numEntries = 0;
+        private int maxBatchSize = 0;
+
+        @Override
+        public void addAll(List<String> entries) {
+            numEntries += entries.size();
+            maxBatchSize = Math.max(maxBatchSize, entries.size());
+            if (keepEntries) {
+                this.entries.addAll(entries);
+            }
+        }
+    }
+
+    private static final class RecordingListener implements EntryImporter.Listener {
+
+        private int numProgressReports = 0;
+        private long lastBytesRead = 0;
+        private int lastNumEntries = 0;
+        private boolean monotonic = true;
+        private EntryImporter.Progress finished;
+
+        @Override
+        public void onProgress(EntryImporter.Progress progress) {
+            numProgressReports++;
+            check(progress);
+        }
+
+        @Override
+        public void onFinished(EntryImporter.Progress progress) {
+            check(progress);
+            finished = progress;
+        }
+
+        @Override
+        public void onError(IOException e) {
+            fail(e.toString());
+        }
+
+        private void check(EntryImporter.Progress progress) {
+            monotonic &= progress.getBytesRead() >= lastBytesRead && progress.getNumEntries() >= lastNumEntries;
+            lastBytesRead = progress.getBytesRead();
+            lastNumEntries = progress.getNumEntries();
+        }
+    }
+}
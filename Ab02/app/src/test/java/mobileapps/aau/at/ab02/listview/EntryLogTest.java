@@ -0,0 +1,284 @@
+package mobileapps.aau.at.ab02.listview;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link EntryLog}.
+ */
+public class EntryLogTest {
+
+    private static final int NUM_ENTRIES = 100000;
+    private static final int NUM_VISIBLE_ROWS = 20;
+
+    private File path;
+
+    @Before
+    public void setUp() throws Exception {
+        path = File.createTempFile("entries", ".log");
+        path.delete();
+    }
+
+    @After
+    public void tearDown() {
+        path.delete();
+        new File(path.getPath() + ".tmp").delete();
+    }
+
+    @Test
+    public void changesAreKeptAfterReopening() throws Exception {
+        EntryLog log = EntryLog.open(path);
+        log.add("first");
+        log.add("second");
+        log.add("");
+        log.set(2, "third");
+        log.flush();
+        log.close();
+
+        log = EntryLog.open(path);
+        assertEquals(3, log.size());
+        assertEquals("first", log.get(0).toString());
+        assertEquals("third", log.get(2).toString());
+
+        log.clear();
+        log.add("only");
+        log.flush();
+        log.close();
+
+        log = EntryLog.open(path);
+        assertEquals(1, log.size());
+        assertEquals("only", log.get(0).toString());
+        log.close();
+    }
+
+    @Test
+    public void partiallyWrittenRecordIsDropped() throws Exception {
+        EntryLog log = EntryLog.open(path);
+        log.add("first");
+        log.add("second");
+        log.flush();
+        log.close();
+
+        // cut the last record in its characters
+        RandomAccessFile file = new RandomAccessFile(path, "rw");
+        file.setLength(file.length() - 3);
+        file.close();
+
+        log = EntryLog.open(path);
+        assertEquals(1, log.size());
+        log.add("third");
+        log.flush();
+        log.close();
+
+        log = EntryLog.open(path);
+        assertEquals(2, log.size());
+        assertEquals("third", log.get(1).toString());
+        log.close();
+    }
+
+    @Test
+    public void compactionKeepsAllEntries() throws Exception {
+        EntryLog log = EntryLog.open(path);
+        for (int i = 0; i < 5000; i++) {
+            log.add("entry " + i);
+        }
+        log.flush();
+        final long compactedLength = path.length();
+        // entries are read from the new snapshot instead of being kept in memory
+        assertFalse(log.get(0) instanceof String);
+
+        for (int i = 0; i < 5000; i++) {
+            log.set(i % 10, "changed " + i);
+        }
+        log.flush();
+        log.close();
+
+        log = EntryLog.open(path);
+        assertEquals(5000, log.size());
+        assertEquals("changed 4999", log.get(9).toString());
+        assertEquals("entry 4999", log.get(4999).toString());
+        // replaced by a snapshot instead of growing with each change
+        assertTrue(path.length() < 2 * compactedLength);
+        log.close();
+    }
+
+    @Test
+    public void fileTooLargeIsReportedAndEntriesAreKept() throws Exception {
+        EntryLog log = EntryLog.open(path);
+        log.setMaxFileSize(64 * 1024);
+        for (int i = 0; i < 5000; i++) {
+            log.add("entry " + i);
+        }
+
+        // neither the snapshot nor the records fit
+        try {
+            log.flush();
+            fail("flush should fail");
+        } catch (IOException e) {
+            // expected
+        }
+
+        assertEquals(5000, log.size());
+        assertEquals("entry 4999", log.get(4999).toString());
+        log.set(0, "changed");
+        assertEquals("changed", log.get(0).toString());
+        log.close();
+    }
+
+    @Test
+    public void appendingInBatchesRewritesEachEntryOnlyAFewTimes() throws Exception {
+        final int numEntries = 1000000;
+        EntryLog log = EntryLog.open(path);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < numEntries; i++) {
+            log.add("entry " + i);
+            if (i % 4096 == 4095) {
+                log.flush();
+            }
+        }
+        log.flush();
+        long nanos = System.nanoTime() - start;
+
+        System.out.println(String.format("append %d entries: %.2f s, %d entries compacted",
+                numEntries, nanos / 1e9, log.getNumCompactedEntries()));
+        // snapshots double, a fixed interval between compactions would rewrite them quadratically often
+        assertTrue(log.getNumCompactedEntries() < 3L * numEntries);
+        log.close();
+
+        log = EntryLog.open(path);
+        assertEquals(numEntries, log.size());
+        assertEquals("entry 999999", log.get(numEntries - 1).toString());
+        log.close();
+    }
+
+    @Test
+    public void randomChangesMatchAList() throws Exception {
+        // while a directory is in the way of the new snapshot, each compaction fails and the
+        // records are appended instead
+        final File temp = new File(path.getPath() + ".tmp");
+        for (boolean compactionFails : new boolean[]{false, true}) {
+            path.delete();
+            EntryLog log = EntryLog.open(path);
+            if (compactionFails) {
+                assertTrue(temp.mkdir());
+            }
+
+            Random random = new Random(42);
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < 200000; i++) {
+                final int op = random.nextInt(1000);
+                if (op < 700 || expected.isEmpty()) {
+                    expected.add("entry " + i);
+                    log.add("entry " + i);
+                } else if (op < 950) {
+                    final int index = random.nextInt(expected.size());
+                    expected.set(index, "set " + i);
+                    log.set(index, "set " + i);
+                } else if (op < 951) {
+                    expected.clear();
+                    log.clear();
+                } else if (op < 970) {
+                    log.flush();
+                } else {
+                    final int index = random.nextInt(expected.size());
+                    assertEquals(expected.get(index), log.get(index).toString());
+                }
+
+                if (i % 50000 == 49999) {
+                    assertSameEntries(expected, log);
+                    log.flush();
+                    log.close();
+                    log = EntryLog.open(path);
+                    assertSameEntries(expected, log);
+                }
+            }
+            if (compactionFails) {
+                assertEquals(0, log.getNumCompactedEntries());
+                assertTrue(temp.delete());
+            }
+
+            log.flush();
+            log.close();
+            log = EntryLog.open(path);
+            assertSameEntries(expected, log);
+            log.close();
+        }
+    }
+
+    @Test
+    public void changedEntriesAreNotKeptInMemory() throws Exception {
+        final int numEntries = 1000000;
+        final char[] text = new char[100];
+        Arrays.fill(text, 'x');
+
+        EntryLog log = EntryLog.open(path);
+        final long heapBefore = getUsedHeap();
+        for (int i = 0; i < numEntries; i++) {
+            log.add(new String(text) + i);
+            if (i % 4096 == 4095) {
+                log.flush();
+            }
+        }
+        log.flush();
+
+        // almost half of the entries were added after the last snapshot, as strings they would take 100 MB
+        final long heapAfter = getUsedHeap();
+        System.out.println(String.format("heap for %d entries: %.1f MB",
+                numEntries, (heapAfter - heapBefore) / 1e6));
+        assertTrue(heapAfter - heapBefore < 32 * 1024 * 1024);
+        assertEquals(new String(text) + (numEntries - 1), log.get(numEntries - 1).toString());
+        log.close();
+    }
+
+    @Test
+    public void firstRowsOfManyEntries() throws Exception {
+        EntryLog log = EntryLog.open(path);
+        for (int i = 0; i < NUM_ENTRIES; i++) {
+            log.add("entry " + i);
+        }
+        log.flush();
+        log.close();
+
+        long start = System.nanoTime();
+        log = EntryLog.open(path);
+        EntryStore rows = new EntryStore();
+        for (int i = 0; i < NUM_VISIBLE_ROWS; i++) {
+            rows.add(log.get(i));
+        }
+        long nanos = System.nanoTime() - start;
+
+        System.out.println(String.format("open %d entries and load %d rows: %.2f ms",
+                NUM_ENTRIES, NUM_VISIBLE_ROWS, nanos / 1e6));
+        assertEquals(NUM_ENTRIES, log.size());
+        assertEquals("entry 19", rows.get(NUM_VISIBLE_ROWS - 1));
+        assertEquals("entry 99999", log.get(NUM_ENTRIES - 1).toString());
+        log.close();
+    }
+
+    private static void assertSameEntries(List<String> expected, EntryLog log) {
+        assertEquals(expected.size(), log.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), log.get(i).toString());
+        }
+    }
+
+    private static long getUsedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
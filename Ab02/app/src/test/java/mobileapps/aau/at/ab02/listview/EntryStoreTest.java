@@ -0,0 +1,86 @@
+package mobileapps.aau.at.ab02.listview;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import mobileapps.aau.at.testing.AllocationBudget;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link EntryStore}.
+ */
+public class EntryStoreTest {
+
+    private static final int NUM_ENTRIES = 100000;
+
+    @Test
+    public void entriesKeepTheirTextsWhenUpdated() throws Exception {
+        EntryStore store = new EntryStore(1, 1);
+        store.addAll(Arrays.asList("first", "second", "third"));
+        store.add("");
+
+        store.set(0, "1st");
+        store.set(1, "a much longer second entry");
+        store.setAll(2, Arrays.asList("3", "fourth"));
+
+        assertEquals(4, store.size());
+        assertEquals("1st", store.get(0));
+        assertEquals("a much longer second entry", store.get(1));
+        assertEquals("3", store.get(2));
+        assertEquals("fourth", store.get(3));
+        assertFalse(store.isEmpty(3));
+    }
+
+    @Test
+    public void repeatedUpdatesDoNotGrowTheArena() throws Exception {
+        EntryStore store = EntryStore.of(createEntries(1000));
+        final long footprint = store.getFootprint();
+
+        for (int i = 0; i < 100000; i++) {
+            store.set(i % 1000, (i & 1) == 0 ? "entry with a longer text " + i : "entry " + i);
+        }
+
+        assertTrue(store.getFootprint() <= 4 * footprint);
+        assertEquals("entry 99999", store.get(999));
+    }
+
+    @Test
+    public void contentEqualsComparesTexts() throws Exception {
+        EntryStore store = EntryStore.of(Arrays.asList("a", "ab", "b"));
+        EntryStore other = EntryStore.of(Arrays.asList("ab", "a", "c"));
+
+        assertTrue(store.contentEquals(0, other, 1));
+        assertTrue(store.contentEquals(1, other, 0));
+        assertFalse(store.contentEquals(2, other, 2));
+        assertFalse(store.contentEquals(0, other, 0));
+    }
+
+    @Test
+    public void footprintOfManyEntries() throws Exception {
+        // both are created in one go, so the allocated bytes are what they retain
+        long listBytes = AllocationBudget.getAllocatedBytes();
+        List<String> entries = createEntries(NUM_ENTRIES);
+        listBytes = AllocationBudget.getAllocatedBytes() - listBytes;
+
+        long storeBytes = AllocationBudget.getAllocatedBytes();
+        EntryStore store = EntryStore.of(entries);
+        storeBytes = AllocationBudget.getAllocatedBytes() - storeBytes;
+
+        System.out.println(String.format("%d entries, list of strings: %d KiB, entry store: %d KiB",
+                NUM_ENTRIES, listBytes / 1024, storeBytes / 1024));
+        assertEquals(entries.size(), store.size());
+        assertTrue(storeBytes < listBytes);
+    }
+
+    private static List<String> createEntries(int numEntries) {
+        List<String> entries = new ArrayList<>(numEntries);
+        for (int i = 0; i < numEntries; i++) {
+            entries.add("entry " + i);
+        }
+        return entries;
+    }
+}
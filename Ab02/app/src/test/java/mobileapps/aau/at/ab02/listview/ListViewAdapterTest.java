@@ -0,0 +1,82 @@
+package mobileapps.aau.at.ab02.listview;
+
+import android.app.Activity;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import mobileapps.aau.at.testing.AllocationBudget;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Unit tests for the row binding of {@link ListViewAdapter}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ListViewAdapterTest {
+
+    private static final int NUM_ROWS = 100;
+
+    private ListViewAdapter adapter;
+    private ListViewAdapter.ViewHolder holder;
+    private EntryStore rows;
+
+    @Before
+    public void setUp() {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+
+        List<String> texts = new ArrayList<>(NUM_ROWS);
+        for (int i = 0; i < NUM_ROWS; i++) {
+            texts.add("row " + i);
+        }
+        rows = EntryStore.of(texts);
+        adapter = new ListViewAdapter(activity);
+        adapter.setItems(texts);
+
+        RecyclerView parent = new RecyclerView(activity);
+        parent.setLayoutManager(new LinearLayoutManager(activity));
+        holder = adapter.createViewHolder(parent, 0);
+    }
+
+    @Test
+    public void listenersAreAttachedOnce() {
+        adapter.bindViewHolder(holder, 0);
+        View.OnClickListener listener = shadowOf(holder.itemView).getOnClickListener();
+
+        adapter.bindViewHolder(holder, 1);
+
+        assertNotNull(listener);
+        assertSame(listener, shadowOf(holder.itemView).getOnClickListener());
+        assertEquals("row 1", holder.text.getText().toString());
+    }
+
+    @Test
+    public void bindingDoesNotAllocate() throws Exception {
+        // only what binding adds to setting the text is counted, smaller than any object,
+        // so a listener per bind would exceed it
+        new AllocationBudget("ListViewAdapter.onBindViewHolder", 8)
+                .setBaseline(new AllocationBudget.Operation() {
+                    @Override
+                    public void run(int iteration) {
+                        final int row = iteration % NUM_ROWS;
+                        holder.text.setText(rows.getChars(), rows.getStart(row), rows.getLength(row));
+                    }
+                })
+                .check(new AllocationBudget.Operation() {
+                    @Override
+                    public void run(int iteration) {
+                        adapter.bindViewHolder(holder, iteration % NUM_ROWS);
+                    }
+                });
+    }
+}
@@ -0,0 +1,154 @@
+package mobileapps.aau.at.ab02.listview;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PagedEntries}.
+ */
+public class PagedEntriesTest {
+
+    private static final int NUM_ENTRIES = 1000000;
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    @Test
+    public void scrollingThroughManyEntriesKeepsFewPages() throws Exception {
+        File path = File.createTempFile("entries", ".log");
+        path.delete();
+        try {
+            EntryLog log = EntryLog.open(path);
+            for (int i = 0; i < NUM_ENTRIES; i++) {
+                log.add("entry " + i);
+            }
+            log.flush();
+
+            PagedEntries entries = new PagedEntries(DIRECT);
+            entries.setSource(log, DIRECT);
+
+            long start = System.nanoTime();
+            int maxLoadedPages = 0;
+            for (int i = 0; i < NUM_ENTRIES; i++) {
+                entries.onBind(i);
+                maxLoadedPages = Math.max(maxLoadedPages, entries.getNumLoadedPages());
+            }
+            for (int i = NUM_ENTRIES - 1; i >= 0; i -= 7) {
+                entries.onBind(i);
+                maxLoadedPages = Math.max(maxLoadedPages, entries.getNumLoadedPages());
+            }
+            long nanos = System.nanoTime() - start;
+
+            System.out.println(String.format("scroll through %d entries and back: %.1f ms",
+                    NUM_ENTRIES, nanos / 1e6));
+            assertTrue(maxLoadedPages <= PagedEntries.MAX_PAGES);
+            assertEquals("entry 0", entries.get(0));
+            assertEquals("entry 765432", entries.get(765432));
+            log.close();
+        } finally {
+            path.delete();
+        }
+    }
+
+    @Test
+    public void nextPageIsPrefetchedInScrollDirection() throws Exception {
+        RecordingExecutor loader = new RecordingExecutor();
+        PagedEntries entries = new PagedEntries(DIRECT);
+        entries.setSource(EntryStore.of(createEntries(10 * PagedEntries.PAGE_SIZE)), loader);
+
+        for (int i = 0; i < PagedEntries.PAGE_SIZE / 2; i++) {
+            entries.onBind(i);
+        }
+        assertTrue(loader.commands.isEmpty());
+
+        // second half of the first page
+        entries.onBind(PagedEntries.PAGE_SIZE / 2);
+        entries.onBind(PagedEntries.PAGE_SIZE / 2 + 1);
+        assertEquals(1, loader.commands.size());
+        loader.runAll();
+        assertEquals(2, entries.getNumLoadedPages());
+
+        // scrolling up in page 5 loads page 4
+        entries.onBind(5 * PagedEntries.PAGE_SIZE + 10);
+        entries.onBind(5 * PagedEntries.PAGE_SIZE + 9);
+        assertEquals(1, loader.commands.size());
+        loader.runAll();
+        assertEquals(4, entries.getNumLoadedPages());
+        assertEquals("entry " + (4 * PagedEntries.PAGE_SIZE), entries.get(4 * PagedEntries.PAGE_SIZE));
+        assertEquals(4, entries.getNumLoadedPages());
+    }
+
+    @Test
+    public void prefetchedPageIsDroppedAfterChange() throws Exception {
+        RecordingExecutor loader = new RecordingExecutor();
+        EntryStore source = EntryStore.of(createEntries(2 * PagedEntries.PAGE_SIZE));
+        PagedEntries entries = new PagedEntries(DIRECT);
+        entries.setSource(source, loader);
+
+        entries.onBind(PagedEntries.PAGE_SIZE - 2);
+        entries.onBind(PagedEntries.PAGE_SIZE - 1);
+        entries.set(PagedEntries.PAGE_SIZE, "changed");
+        loader.runAll();
+
+        assertEquals(1, entries.getNumLoadedPages());
+        assertEquals("changed", entries.get(PagedEntries.PAGE_SIZE));
+    }
+
+    @Test
+    public void changesUpdateLoadedPages() throws Exception {
+        EntryStore source = EntryStore.of(createEntries(PagedEntries.PAGE_SIZE - 1));
+        PagedEntries entries = new PagedEntries(DIRECT);
+        entries.setSource(source, DIRECT);
+        entries.onBind(0);
+
+        entries.set(3, "changed");
+        entries.add("last of first page");
+        entries.add("first of second page");
+
+        assertEquals("changed", entries.get(3));
+        assertEquals("last of first page", entries.get(PagedEntries.PAGE_SIZE - 1));
+        assertEquals("first of second page", entries.get(PagedEntries.PAGE_SIZE));
+        assertEquals("changed", source.get(3));
+        assertEquals(PagedEntries.PAGE_SIZE + 1, source.size());
+
+        entries.clear();
+        assertEquals(0, entries.size());
+        assertEquals(0, entries.getNumLoadedPages());
+    }
+
+    private static List<String> createEntries(int numEntries) {
+        List<String> entries = new ArrayList<>(numEntries);
+        for (int i = 0; i < numEntries; i++) {
+            entries.add("entry " + i);
+        }
+        return entries;
+    }
+
+    private static final class RecordingExecutor implements Executor {
+
+        private final List<Runnable> commands = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            commands.add(command);
+        }
+
+        private void runAll() {
+            List<Runnable> commands = new ArrayList<>(this.commands);
+            this.commands.clear();
+            for (Runnable command : commands) {
+                command.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package mobileapps.aau.at.ab02.listview;
+
+import android.support.v7.util.DiffUtil;
+import android.support.v7.util.ListUpdateCallback;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link TextDiffCallback}, using lists of the size of large real lists.
+ */
+public class TextDiffCallbackTest {
+
+    private static final int NUM_ROWS = 10000;
+
+    @Test
+    public void insertedRowIsReportedAsSingleInsert() throws Exception {
+        List<String> oldRows = createRows(NUM_ROWS);
+        List<String> newRows = new ArrayList<>(oldRows);
+        newRows.add(5000, "new row");
+
+        RecordingCallback callback = diff(oldRows, newRows);
+
+        assertEquals(1, callback.inserted);
+        assertEquals(0, callback.removed);
+        assertEquals(0, callback.changed);
+        assertEquals(5000, callback.lastPosition);
+    }
+
+    @Test
+    public void editedRowOnlyTouchesThatRow() throws Exception {
+        List<String> oldRows = createRows(NUM_ROWS);
+        List<String> newRows = new ArrayList<>(oldRows);
+        newRows.set(1234, "edited row");
+
+        RecordingCallback callback = diff(oldRows, newRows);
+
+        // rows have no identity besides their text
+        assertEquals(1, callback.inserted);
+        assertEquals(1, callback.removed);
+        assertEquals(0, callback.moved);
+        assertEquals(1234, callback.lastPosition);
+    }
+
+    @Test
+    public void equalListsHaveNoUpdates() throws Exception {
+        List<String> rows = createRows(NUM_ROWS);
+
+        long start = System.nanoTime();
+        RecordingCallback callback = diff(rows, new ArrayList<>(rows));
+        long nanos = System.nanoTime() - start;
+
+        assertEquals(0, callback.inserted + callback.removed + callback.changed + callback.moved);
+        System.out.println(String.format("diff of %d equal rows: %.2f ms", NUM_ROWS, nanos / 1e6));
+    }
+
+    private static RecordingCallback diff(List<String> oldRows, List<String> newRows) {
+        RecordingCallback callback = new RecordingCallback();
+        DiffUtil.calculateDiff(
+                new TextDiffCallback(EntryStore.of(oldRows), EntryStore.of(newRows))).dispatchUpdatesTo(callback);
+        return callback;
+    }
+
+    private static List<String> createRows(int numRows) {
+        List<String> rows = new ArrayList<>(numRows);
+        for (int i = 0; i < numRows; i++) {
+            rows.add("row " + i);
+        }
+        return rows;
+    }
+
+    private static final class RecordingCallback implements ListUpdateCallback {
+
+        private int inserted = 0;
+        private int removed = 0;
+        private int moved = 0;
+        private int changed = 0;
+        private int lastPosition = -1;
+
+        @Override
+        public void onInserted(int position, int count) {
+            inserted += count;
+            lastPosition = position;
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            removed += count;
+            lastPosition = position;
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            moved += 1;
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            changed += count;
+            lastPosition = position;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package mobileapps.aau.at.ab02.listview;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link TrigramIndex}, including the latency of searching while typing.
+ */
+public class TrigramIndexTest {
+
+    private static final int NUM_ENTRIES = 100000;
+
+    private static final String[] WORDS = {
+            "Hello", "World", "animation", "Label", "falling", "words", "Android", "list", "row", "phrase"
+    };
+
+    private static final TrigramIndex.Cancellation NOT_CANCELLED = new TrigramIndex.Cancellation() {
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    @Test
+    public void findsEntriesIgnoringCase() throws Exception {
+        TrigramIndex index = new TrigramIndex();
+        index.add("Hello World");
+        index.add("world wide");
+        index.add("Low tide");
+        index.add("lo");
+
+        assertArrayEquals(new int[] {0, 1}, index.search("WORLD", NOT_CANCELLED));
+        assertArrayEquals(new int[] {0, 2, 3}, index.search("lo", NOT_CANCELLED));
+        assertArrayEquals(new int[] {0, 1, 2, 3}, index.search("", NOT_CANCELLED));
+        // all trigrams occur, but not in this order
+        assertArrayEquals(new int[0], index.search("tide low", NOT_CANCELLED));
+    }
+
+    @Test
+    public void changedEntriesAreFoundByTheirNewText() throws Exception {
+        TrigramIndex index = new TrigramIndex();
+        index.add("first entry");
+        index.add("second entry");
+
+        index.set(0, "changed");
+
+        assertArrayEquals(new int[] {1}, index.search("entry", NOT_CANCELLED));
+        assertArrayEquals(new int[] {0}, index.search("change", NOT_CANCELLED));
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertArrayEquals(new int[0], index.search("entry", NOT_CANCELLED));
+    }
+
+    @Test
+    public void cancelledSearchHasNoResults() throws Exception {
+        TrigramIndex index = new TrigramIndex();
+        index.addAll(EntryStore.of(createEntries(10000)));
+
+        assertNull(index.search("world", new TrigramIndex.Cancellation() {
+            @Override
+            public boolean isCancelled() {
+                return true;
+            }
+        }));
+    }
+
+    @Test
+    public void searchWhileTyping() throws Exception {
+        List<String> entries = createEntries(NUM_ENTRIES);
+        TrigramIndex index = new TrigramIndex();
+
+        long start = System.nanoTime();
+        index.addAll(EntryStore.of(entries));
+        final long indexNanos = System.nanoTime() - start;
+
+        // each keystroke starts a new query
+        final String query = "phrase 4242";
+        long maxNanos = 0;
+        for (int i = 1; i <= query.length(); i++) {
+            final String prefix = query.substring(0, i);
+
+            start = System.nanoTime();
+            int[] matches = index.search(prefix, NOT_CANCELLED);
+            final long nanos = System.nanoTime() - start;
+            maxNanos = Math.max(maxNanos, nanos);
+
+            assertArrayEquals(prefix, scan(entries, prefix), matches);
+        }
+
+        System.out.println(String.format("index %d entries: %.1f ms, slowest keystroke: %.2f ms",
+                NUM_ENTRIES, indexNanos / 1e6, maxNanos / 1e6));
+    }
+
+    private static int[] scan(List<String> entries, String query) {
+        final String folded = query.toLowerCase(Locale.ROOT);
+        List<Integer> matches = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i).toLowerCase(Locale.ROOT).contains(folded)) {
+                matches.add(i);
+            }
+        }
+
+        int[] result = new int[matches.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = matches.get(i);
+        }
+        return result;
+    }
+
+    private static List<String> createEntries(int numEntries) {
+        List<String> entries = new ArrayList<>(numEntries);
+        for (int i = 0; i < numEntries; i++) {
+            entries.add(WORDS[i % WORDS.length] + " " + i + " " + WORDS[(i / WORDS.length) % WORDS.length]);
+        }
+        return entries;
+    }
+}
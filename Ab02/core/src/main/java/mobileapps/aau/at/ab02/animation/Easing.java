@@ -0,0 +1,230 @@
+package mobileapps.aau.at.ab02.animation;
+
+/**
+ * Easing functions.
+ *
+ * <p>
+ *     The easing algorithms are based on Robert Penner's work, but are normalized,
+ *     meaning the input is the animation fraction in range 0.0 - 1.0 and the output
+ *     is the progress, where 0.0 is the start and 1.0 the end value. Some curves
+ *     (elastic) overshoot the range in between.
+ * </p>
+ * <p>
+ *     The order of the constants must match the <code>easing</code> enum
+ *     in <code>attrs_animation_view.xml</code>.
+ * </p>
+ */
+public enum Easing {
+
+    LINEAR(false) {
+        @Override
+        public float ease(float t) {
+            return t;
+        }
+    },
+
+    QUAD_IN(false) {
+        @Override
+        public float ease(float t) {
+            return t * t;
+        }
+    },
+    QUAD_OUT(false) {
+        @Override
+        public float ease(float t) {
+            return t * (2.0f - t);
+        }
+    },
+    QUAD_IN_OUT(false) {
+        @Override
+        public float ease(float t) {
+            return t < 0.5f ? 2.0f * t * t : -1.0f + (4.0f - 2.0f * t) * t;
+        }
+    },
+
+    CUBIC_IN(false) {
+        @Override
+        public float ease(float t) {
+            return t * t * t;
+        }
+    },
+    CUBIC_OUT(false) {
+        @Override
+        public float ease(float t) {
+            t -= 1.0f;
+            return t * t * t + 1.0f;
+        }
+    },
+    CUBIC_IN_OUT(false) {
+        @Override
+        public float ease(float t) {
+            if (t < 0.5f) {
+                return 4.0f * t * t * t;
+            }
+            t = 2.0f * t - 2.0f;
+            return 0.5f * t * t * t + 1.0f;
+        }
+    },
+
+    SINE_IN(true) {
+        @Override
+        public float ease(float t) {
+            return 1.0f - (float) Math.cos(t * Math.PI / 2.0);
+        }
+    },
+    SINE_OUT(true) {
+        @Override
+        public float ease(float t) {
+            return (float) Math.sin(t * Math.PI / 2.0);
+        }
+    },
+    SINE_IN_OUT(true) {
+        @Override
+        public float ease(float t) {
+            return (float) (-0.5 * (Math.cos(Math.PI * t) - 1.0));
+        }
+    },
+
+    EXPO_IN(true) {
+        @Override
+        public float ease(float t) {
+            return t == 0.0f ? 0.0f : (float) Math.pow(2.0, 10.0 * (t - 1.0));
+        }
+    },
+    EXPO_OUT(true) {
+        @Override
+        public float ease(float t) {
+            return t == 1.0f ? 1.0f : (float) (1.0 - Math.pow(2.0, -10.0 * t));
+        }
+    },
+    EXPO_IN_OUT(true) {
+        @Override
+        public float ease(float t) {
+            if (t == 0.0f || t == 1.0f) {
+                return t;
+            }
+            if (t < 0.5f) {
+                return (float) (0.5 * Math.pow(2.0, 20.0 * t - 10.0));
+            }
+            return (float) (1.0 - 0.5 * Math.pow(2.0, -20.0 * t + 10.0));
+        }
+    },
+
+    ELASTIC_IN(true) {
+        @Override
+        public float ease(float t) {
+            if (t == 0.0f || t == 1.0f) {
+                return t;
+            }
+            double p = 0.3;
+            double s = p / 4.0;
+            t -= 1.0f;
+            return (float) (-Math.pow(2.0, 10.0 * t) * Math.sin((t - s) * (2.0 * Math.PI) / p));
+        }
+    },
+    ELASTIC_OUT(true) {
+        @Override
+        public float ease(float t) {
+            if (t == 0.0f || t == 1.0f) {
+                return t;
+            }
+            double p = 0.3;
+            double s = p / 4.0;
+            return (float) (Math.pow(2.0, -10.0 * t) * Math.sin((t - s) * (2.0 * Math.PI) / p) + 1.0);
+        }
+    },
+    ELASTIC_IN_OUT(true) {
+        @Override
+        public float ease(float t) {
+            if (t == 0.0f || t == 1.0f) {
+                return t;
+            }
+            double p = 0.3 * 1.5;
+            double s = p / 4.0;
+            t = 2.0f * t - 1.0f;
+            if (t < 0.0f) {
+                return (float) (-0.5 * Math.pow(2.0, 10.0 * t) * Math.sin((t - s) * (2.0 * Math.PI) / p));
+            }
+            return (float) (0.5 * Math.pow(2.0, -10.0 * t) * Math.sin((t - s) * (2.0 * Math.PI) / p) + 1.0);
+        }
+    },
+
+    BOUNCE_IN(false) {
+        @Override
+        public float ease(float t) {
+            return 1.0f - bounceOut(1.0f - t);
+        }
+    },
+    BOUNCE_OUT(false) {
+        @Override
+        public float ease(float t) {
+            return bounceOut(t);
+        }
+    },
+    BOUNCE_IN_OUT(false) {
+        @Override
+        public float ease(float t) {
+            if (t < 0.5f) {
+                return 0.5f * (1.0f - bounceOut(1.0f - 2.0f * t));
+            }
+            return 0.5f * bounceOut(2.0f * t - 1.0f) + 0.5f;
+        }
+    };
+
+    /**
+     * Indicating whether evaluating the curve is expensive (transcendental functions).
+     */
+    private final boolean expensive;
+
+    Easing(boolean expensive) {
+        this.expensive = expensive;
+    }
+
+    /**
+     * Evaluate the easing curve.
+     *
+     * @param t Animation fraction in range 0.0 - 1.0.
+     * @return Progress, where 0.0 is the start and 1.0 the end value.
+     */
+    public abstract float ease(float t);
+
+    /**
+     * Create the evaluator to be used when animating with this easing curve.
+     *
+     * <p>
+     *     Expensive curves are precomputed into a lookup table, all other curves
+     *     are evaluated directly.
+     * </p>
+     */
+    public PrimitiveFloatEvaluator createEvaluator() {
+        return expensive ? new EasingLookupTable(this) : new EasingEvaluator(this);
+    }
+
+    /**
+     * Get easing by the value used in the XML attribute.
+     *
+     * @param attributeValue Value of the <code>easing</code> attribute.
+     * @param defaultEasing Easing returned if the value is out of range.
+     */
+    public static Easing fromAttributeValue(int attributeValue, Easing defaultEasing) {
+        Easing[] values = values();
+        if (attributeValue < 0 || attributeValue >= values.length) {
+            return defaultEasing;
+        }
+        return values[attributeValue];
+    }
+
+    private static float bounceOut(float t) {
+        if (t < 1.0f / 2.75f) {
+            return 7.5625f * t * t;
+        } else if (t < 2.0f / 2.75f) {
+            t -= 1.5f / 2.75f;
+            return 7.5625f * t * t + 0.75f;
+        } else if (t < 2.5f / 2.75f) {
+            t -= 2.25f / 2.75f;
+            return 7.5625f * t * t + 0.9375f;
+        }
+        t -= 2.625f / 2.75f;
+        return 7.5625f * t * t + 0.984375f;
+    }
+}
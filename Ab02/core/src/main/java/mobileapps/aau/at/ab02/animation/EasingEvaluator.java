@@ -0,0 +1,23 @@
+package mobileapps.aau.at.ab02.animation;
+
+/**
+ * Evaluator applying an {@link Easing} curve directly.
+ */
+public class EasingEvaluator implements PrimitiveFloatEvaluator {
+
+    private final Easing easing;
+
+    public EasingEvaluator(Easing easing) {
+
+        if (easing == null) {
+            throw new IllegalArgumentException("easing is null");
+        }
+
+        this.easing = easing;
+    }
+
+    @Override
+    public float evaluate(float fraction, float startValue, float endValue) {
+        return startValue + (endValue - startValue) * easing.ease(fraction);
+    }
+}
@@ -0,0 +1,66 @@
+package mobileapps.aau.at.ab02.animation;
+
+/**
+ * Evaluator using a precomputed lookup table of an {@link Easing} curve.
+ *
+ * <p>
+ *     The curve is sampled at equidistant points once and linearly interpolated
+ *     in between, which replaces the transcendental functions of the more expensive
+ *     curves by a table lookup.
+ * </p>
+ */
+public class EasingLookupTable implements PrimitiveFloatEvaluator {
+
+    public static final int DEFAULT_NUM_SAMPLES = 1024;
+
+    private final float[] samples;
+    private final float scale;
+
+    public EasingLookupTable(Easing easing) {
+        this(easing, DEFAULT_NUM_SAMPLES);
+    }
+
+    /**
+     * Create new lookup table.
+     *
+     * @param easing     Curve to sample.
+     * @param numSamples Number of intervals the range 0.0 - 1.0 is divided into.
+     */
+    public EasingLookupTable(Easing easing, int numSamples) {
+
+        if (easing == null) {
+            throw new IllegalArgumentException("easing is null");
+        }
+        if (numSamples < 1) {
+            throw new IllegalArgumentException("numSamples < 1");
+        }
+
+        samples = new float[numSamples + 1];
+        for (int i = 0; i <= numSamples; i++) {
+            samples[i] = easing.ease(i / (float) numSamples);
+        }
+        scale = numSamples;
+    }
+
+    /**
+     * Evaluate the sampled curve.
+     *
+     * @param t Animation fraction, clamped to range 0.0 - 1.0.
+     */
+    public float ease(float t) {
+
+        float position = Math.max(0.0f, Math.min(1.0f, t)) * scale;
+        int index = (int) position;
+        if (index >= samples.length - 1) {
+            return samples[samples.length - 1];
+        }
+
+        float weight = position - index;
+        return samples[index] + (samples[index + 1] - samples[index]) * weight;
+    }
+
+    @Override
+    public float evaluate(float fraction, float startValue, float endValue) {
+        return startValue + (endValue - startValue) * ease(fraction);
+    }
+}
@@ -0,0 +1,394 @@
+package mobileapps.aau.at.ab02.animation;
+
+import java.util.Arrays;
+
+/**
+ * Breaks a sequence of words into lines.
+ *
+ * <p>
+ *     Two strategies are supported:
+ *     <ul>
+ *         <li>{@link Mode#GREEDY} puts as many words as possible on each line.</li>
+ *         <li>{@link Mode#MINIMUM_RAGGEDNESS} minimizes the sum of the squared free space
+ *         at the end of all lines but the last one, which gives more balanced lines.</li>
+ *     </ul>
+ * </p>
+ * <p>
+ *     Line breaking is incremental. When the available width changes, each existing line is
+ *     checked in constant time using prefix sums of the word widths and only lines which
+ *     are no longer valid are broken again. When words change, the lines before the change
+ *     are kept and breaking stops as soon as a line starts at the same word as before.
+ *     The minimum raggedness strategy keeps its cost table for the words after a change,
+ *     but must be computed completely when the width changes.
+ * </p>
+ */
+public final class LineBreaker {
+
+    /**
+     * Line breaking strategy.
+     *
+     * <p>
+     *     The order of the constants must match the <code>lineBreaking</code> enum
+     *     in <code>attrs_animation_view.xml</code>.
+     * </p>
+     */
+    public enum Mode {
+        GREEDY,
+        MINIMUM_RAGGEDNESS
+    }
+
+    private final Mode mode;
+
+    private int spaceWidth = 0;
+    private int maxWidth = 0;
+
+    // prefix[i] is the width of the words 0 .. i-1, each followed by a space
+    private long[] prefix = new long[1];
+    private int numWords = 0;
+
+    // first word of each line, lineStart[numLines] == numWords
+    private int[] lineStart = new int[1];
+    private int numLines = 0;
+
+    // lines before the current update, swapped with lineStart
+    private int[] previousLineStart = new int[1];
+
+    // minimum raggedness: cost of the best breaks for words i .. numWords-1 and end of the first line
+    private long[] cost = new long[1];
+    private int[] next = new int[1];
+
+    // number of lines broken by the last update, for diagnostics
+    private int numLinesBroken = 0;
+
+    public LineBreaker(Mode mode) {
+
+        if (mode == null) {
+            throw new IllegalArgumentException("mode is null");
+        }
+
+        this.mode = mode;
+    }
+
+    /**
+     * Set all words and break them into lines.
+     *
+     * @param widths     Width of each word.
+     * @param numWords   Number of words.
+     * @param spaceWidth Width of the space between two words.
+     * @param maxWidth   Maximum width of a line.
+     */
+    public void setWords(int[] widths, int numWords, int spaceWidth, int maxWidth) {
+
+        this.spaceWidth = spaceWidth;
+        this.maxWidth = maxWidth;
+        this.numWords = numWords;
+        ensureWordCapacity(numWords);
+        computePrefix(widths, 0);
+
+        numLines = 0;
+        if (mode == Mode.MINIMUM_RAGGEDNESS) {
+            computeCost(numWords);
+        }
+        breakLines(0, 0, false);
+    }
+
+    /**
+     * Change the maximum width of a line.
+     */
+    public void setMaxWidth(int maxWidth) {
+
+        if (maxWidth == this.maxWidth) {
+            numLinesBroken = 0;
+            return;
+        }
+
+        this.maxWidth = maxWidth;
+        if (mode == Mode.MINIMUM_RAGGEDNESS) {
+            // the cost of every possible line depends on the width
+            computeCost(numWords);
+        }
+        breakLines(0, 0, false);
+    }
+
+    /**
+     * Replace a range of words.
+     *
+     * @param from     Index of the first changed word.
+     * @param oldCount Number of words which were replaced.
+     * @param newCount Number of words replacing them.
+     * @param widths   Widths of all words after the change.
+     * @param numWords Number of words after the change.
+     */
+    public void replaceWords(int from, int oldCount, int newCount, int[] widths, int numWords) {
+
+        if (from < 0 || from + oldCount > this.numWords || numWords != this.numWords - oldCount + newCount) {
+            throw new IllegalArgumentException("invalid range");
+        }
+
+        final int delta = newCount - oldCount;
+        final int changeEnd = from + newCount;
+
+        // old line starts after the changed range move with the words
+        final int changedLine = findLine(from);
+        if (oldCount > 0 && lineStart[changedLine] == from) {
+            // first word of the line was replaced
+            lineStart[changedLine] = -1;
+        }
+        for (int line = changedLine + 1; line <= numLines; line++) {
+            if (lineStart[line] >= from + oldCount) {
+                lineStart[line] += delta;
+            } else {
+                // line started within the replaced words - cannot be reused
+                lineStart[line] = -1;
+            }
+        }
+
+        if (mode == Mode.MINIMUM_RAGGEDNESS && delta != 0) {
+            // cost of the words after the change is still valid, but moved
+            ensureWordCapacity(numWords);
+            final int oldSuffix = from + oldCount;
+            System.arraycopy(cost, oldSuffix, cost, changeEnd, this.numWords - oldSuffix + 1);
+            System.arraycopy(next, oldSuffix, next, changeEnd, this.numWords - oldSuffix + 1);
+            for (int i = changeEnd; i <= numWords; i++) {
+                next[i] += delta;
+            }
+        }
+
+        this.numWords = numWords;
+        ensureWordCapacity(numWords);
+        computePrefix(widths, from);
+
+        if (mode == Mode.MINIMUM_RAGGEDNESS) {
+            computeCost(changeEnd);
+        }
+
+        // with greedy breaking the first changed word might move to the previous line,
+        // all lines before stay as they are; minimum raggedness breaks might change everywhere
+        // before the change, but are taken from the cost table
+        final int firstLine = mode == Mode.GREEDY ? Math.max(0, changedLine - 1) : 0;
+        breakLines(firstLine, changeEnd, true);
+    }
+
+    public int getNumLines() {
+        return numLines;
+    }
+
+    /**
+     * Get index of the first word of a line.
+     */
+    public int getLineStart(int line) {
+        return lineStart[line];
+    }
+
+    /**
+     * Get index after the last word of a line.
+     */
+    public int getLineEnd(int line) {
+        return lineStart[line + 1];
+    }
+
+    /**
+     * Get width of a line including the spaces between its words.
+     */
+    public int getLineWidth(int line) {
+        return (int) width(lineStart[line], lineStart[line + 1]);
+    }
+
+    /**
+     * Get number of lines broken by the last update.
+     */
+    public int getNumLinesBroken() {
+        return numLinesBroken;
+    }
+
+    /**
+     * Width of the words start .. end-1 including the spaces between them.
+     */
+    private long width(int start, int end) {
+        return prefix[end] - prefix[start] - spaceWidth;
+    }
+
+    private void computePrefix(int[] widths, int from) {
+        for (int i = from; i < numWords; i++) {
+            prefix[i + 1] = prefix[i] + widths[i] + spaceWidth;
+        }
+    }
+
+    /**
+     * Find the line containing a word.
+     */
+    private int findLine(int word) {
+        if (numLines == 0) {
+            return 0;
+        }
+
+        int index = Arrays.binarySearch(lineStart, 0, numLines, word);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return Math.max(0, Math.min(index, numLines - 1));
+    }
+
+    /**
+     * Break lines starting with the given line.
+     *
+     * <p>
+     *     Existing lines after <code>changeEnd</code> are kept, if they are still valid.
+     *     If the width did not change, all lines are the same as before as soon as a line
+     *     starts at the same word as before, therefore breaking stops there.
+     * </p>
+     *
+     * @param firstLine First line to break, all lines before are kept.
+     * @param changeEnd Index after the last changed word.
+     * @param sameWidth Indicating whether the maximum width is the same as in the previous update.
+     */
+    private void breakLines(int firstLine, int changeEnd, boolean sameWidth) {
+
+        final int oldNumLines = numLines;
+        final int[] oldLineStart = lineStart;
+        lineStart = previousLineStart;
+        previousLineStart = oldLineStart;
+
+        ensureLineCapacity(Math.max(firstLine, oldNumLines) + 2);
+        System.arraycopy(oldLineStart, 0, lineStart, 0, firstLine);
+        numLinesBroken = 0;
+
+        int line = firstLine;
+        int oldLine = firstLine;
+        int start = firstLine < oldNumLines ? Math.max(0, oldLineStart[firstLine]) : 0;
+
+        while (start < numWords) {
+            // skip old lines starting before the current position
+            while (oldLine < oldNumLines && oldLineStart[oldLine] < start) {
+                oldLine++;
+            }
+
+            final boolean sameStart = start >= changeEnd
+                    && oldLine < oldNumLines
+                    && oldLineStart[oldLine] == start;
+
+            if (sameStart && sameWidth) {
+                // all following lines are the same as before
+                final int remaining = oldNumLines - oldLine;
+                ensureLineCapacity(line + remaining + 1);
+                System.arraycopy(oldLineStart, oldLine, lineStart, line, remaining);
+                line += remaining;
+                break;
+            }
+
+            int end;
+            if (sameStart && isValidLine(start, oldLineStart[oldLine + 1])) {
+                end = oldLineStart[oldLine + 1];
+            } else {
+                end = breakLine(start);
+                numLinesBroken++;
+            }
+
+            ensureLineCapacity(line + 2);
+            lineStart[line] = start;
+            line++;
+            start = end;
+        }
+
+        numLines = line;
+        lineStart[numLines] = numWords;
+    }
+
+    /**
+     * Test if a line is still the one the current strategy would create.
+     */
+    private boolean isValidLine(int start, int end) {
+
+        if (end <= start || end > numWords) {
+            return false;
+        }
+
+        if (mode == Mode.MINIMUM_RAGGEDNESS) {
+            return next[start] == end;
+        }
+
+        // fits, but the next word would not fit any more
+        return (end - start == 1 || width(start, end) <= maxWidth)
+                && (end == numWords || width(start, end + 1) > maxWidth);
+    }
+
+    /**
+     * Find end of the line starting with the given word.
+     */
+    private int breakLine(int start) {
+
+        if (mode == Mode.MINIMUM_RAGGEDNESS) {
+            return next[start];
+        }
+
+        // binary search for the last word fitting into the line - at least one word per line
+        int low = start + 1;
+        int high = numWords;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (width(start, middle) <= maxWidth) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compute the minimum raggedness cost for all words before <code>end</code>,
+     * assuming the values from <code>end</code> on are valid.
+     */
+    private void computeCost(int end) {
+
+        cost[numWords] = 0;
+        next[numWords] = numWords;
+
+        for (int i = Math.min(end, numWords) - 1; i >= 0; i--) {
+            if (i == numWords - 1 || width(i, numWords) <= maxWidth) {
+                // everything fits into the last line, which is free, even a last word too long for any line
+                cost[i] = 0;
+                next[i] = numWords;
+                continue;
+            }
+
+            long best = Long.MAX_VALUE;
+            int bestNext = i + 1;
+            for (int j = i + 1; j < numWords; j++) {
+                long slack = maxWidth - width(i, j);
+                if (slack < 0 && j > i + 1) {
+                    break;
+                }
+                long lineCost = slack < 0 ? 0 : slack * slack;
+                if (lineCost + cost[j] < best) {
+                    best = lineCost + cost[j];
+                    bestNext = j;
+                }
+            }
+
+            cost[i] = best;
+            next[i] = bestNext;
+        }
+    }
+
+    private void ensureWordCapacity(int numWords) {
+        if (prefix.length > numWords) {
+            return;
+        }
+
+        int capacity = Math.max(numWords + 1, prefix.length * 2);
+        prefix = Arrays.copyOf(prefix, capacity);
+        cost = Arrays.copyOf(cost, capacity);
+        next = Arrays.copyOf(next, capacity);
+    }
+
+    private void ensureLineCapacity(int numLines) {
+        if (lineStart.length >= numLines) {
+            return;
+        }
+
+        int capacity = Math.max(numLines, lineStart.length * 2);
+        lineStart = Arrays.copyOf(lineStart, capacity);
+        previousLineStart = Arrays.copyOf(previousLineStart, capacity);
+    }
+}
@@ -0,0 +1,22 @@
+package mobileapps.aau.at.ab02.animation;
+
+/**
+ * Evaluator working on primitive floats.
+ *
+ * <p>
+ *     Unlike {@code android.animation.TypeEvaluator} no boxing is required,
+ *     which makes it suitable for being called on every animation frame.
+ * </p>
+ */
+public interface PrimitiveFloatEvaluator {
+
+    /**
+     * Compute the value for the given animation fraction.
+     *
+     * @param fraction   Fraction from the starting to the ending value.
+     * @param startValue Start value.
+     * @param endValue   End value.
+     * @return Interpolated value.
+     */
+    float evaluate(float fraction, float startValue, float endValue);
+}
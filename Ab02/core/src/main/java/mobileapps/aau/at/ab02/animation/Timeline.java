@@ -0,0 +1,190 @@
+package mobileapps.aau.at.ab02.animation;
+
+/**
+ * Timeline animating each word individually.
+ *
+ * <p>
+ *     Instead of one animator per word, the start offset, duration and easing curve
+ *     of each word are stored in primitive arrays and evaluated by a single call per frame.
+ *     Start offsets must not decrease, which allows skipping words that have already
+ *     finished or have not been started yet. Therefore the cost per frame only depends on the
+ *     number of words currently moving.
+ * </p>
+ */
+public final class Timeline {
+
+    private final long[] startOffset;
+    private final long[] duration;
+    private final byte[] easing;
+
+    // evaluators for the easing indices used in the easing array
+    private final PrimitiveFloatEvaluator[] evaluators;
+
+    // all words before this index have finished
+    private int firstUnfinished = 0;
+    private long lastElapsed = -1;
+
+    /**
+     * Create new timeline.
+     *
+     * @param numWords Number of animated words.
+     */
+    public Timeline(int numWords) {
+
+        if (numWords < 0) {
+            throw new IllegalArgumentException("numWords < 0");
+        }
+
+        startOffset = new long[numWords];
+        duration = new long[numWords];
+        easing = new byte[numWords];
+        evaluators = new PrimitiveFloatEvaluator[Easing.values().length];
+    }
+
+    /**
+     * Create a timeline, where all words have the same duration and easing and each word
+     * is started a fixed time after the previous one.
+     *
+     * @param numWords  Number of animated words.
+     * @param delay     Time until the first word is started in milliseconds.
+     * @param stagger   Time between the start of two subsequent words in milliseconds.
+     * @param maxSpread Maximum time between the start of the first and the last word, the stagger
+     *                  is reduced for long texts, so that the animation does not take forever.
+     * @param duration  Duration of each word's animation in milliseconds.
+     * @param easing    Easing curve of each word.
+     */
+    public static Timeline staggered(int numWords, long delay, long stagger, long maxSpread, long duration,
+                                     Easing easing) {
+
+        if (stagger < 0) {
+            throw new IllegalArgumentException("stagger < 0");
+        }
+
+        final double effectiveStagger = numWords > 1
+                ? Math.min(stagger, maxSpread / (double) (numWords - 1))
+                : 0.0;
+
+        Timeline timeline = new Timeline(numWords);
+        for (int i = 0; i < numWords; i++) {
+            timeline.set(i, delay + Math.round(i * effectiveStagger), duration, easing);
+        }
+        return timeline;
+    }
+
+    /**
+     * Set the animation of a single word.
+     *
+     * @param index       Index of the word.
+     * @param startOffset Time from the start of the timeline until the word starts moving in milliseconds.
+     *                    Must not be smaller than the one of the previous word.
+     * @param duration    Duration of the word's animation in milliseconds.
+     * @param easing      Easing curve.
+     */
+    public void set(int index, long startOffset, long duration, Easing easing) {
+
+        if (index > 0 && startOffset < this.startOffset[index - 1]) {
+            throw new IllegalArgumentException("startOffset < startOffset of previous word");
+        }
+        if (duration < 0) {
+            throw new IllegalArgumentException("duration < 0");
+        }
+
+        this.startOffset[index] = startOffset;
+        this.duration[index] = duration;
+        this.easing[index] = (byte) easing.ordinal();
+        if (evaluators[easing.ordinal()] == null) {
+            evaluators[easing.ordinal()] = easing.createEvaluator();
+        }
+    }
+
+    /**
+     * Get the time after which all words have finished.
+     */
+    public long getTotalDuration() {
+        long result = 0;
+        for (int i = 0; i < startOffset.length; i++) {
+            result = Math.max(result, startOffset[i] + duration[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Evaluate all words again on the next update.
+     *
+     * <p>
+     *     Must be called if the word locations were set again, since finished words are skipped otherwise.
+     * </p>
+     */
+    public void reset() {
+        firstUnfinished = 0;
+        lastElapsed = -1;
+    }
+
+    /**
+     * Update the word positions for the given time.
+     *
+     * @param elapsed   Time since the start of the timeline in milliseconds.
+     * @param positions Word positions to update.
+     * @return <code>true</code> if there are still words to animate, <code>false</code> if all have finished.
+     */
+    public boolean update(long elapsed, WordPositions positions) {
+
+        if (elapsed < lastElapsed) {
+            // time went backwards, e.g. timeline was restarted - start all words again
+            firstUnfinished = 0;
+            for (int i = 0; i < startOffset.length; i++) {
+                positions.update(i, 0.0f);
+            }
+        }
+        lastElapsed = elapsed;
+
+        // words which are not started yet remain at their initial location
+        boolean allFinishedSoFar = true;
+        for (int i = firstUnfinished; i < startOffset.length && startOffset[i] <= elapsed; i++) {
+            final long wordElapsed = elapsed - startOffset[i];
+            final boolean finished = wordElapsed >= duration[i];
+            final float fraction = finished ? 1.0f : wordElapsed / (float) duration[i];
+
+            positions.update(i, evaluators[easing[i]].evaluate(fraction, 0.0f, 1.0f));
+
+            if (finished && allFinishedSoFar) {
+                firstUnfinished = i + 1;
+            } else {
+                allFinishedSoFar = false;
+            }
+        }
+
+        return firstUnfinished < startOffset.length;
+    }
+
+    /**
+     * Update the positions of a range of words for the given time.
+     *
+     * <p>
+     *     Unlike {@link #update(long, WordPositions)} every word in the range is evaluated,
+     *     since words outside the range are not kept up to date. Used for updating only the
+     *     words which are currently visible, therefore the cost depends on the size of the range.
+     * </p>
+     *
+     * @param elapsed   Time since the start of the timeline in milliseconds.
+     * @param positions Word positions to update.
+     * @param from      Index of the first word to update.
+     * @param to        Index after the last word to update.
+     */
+    public void update(long elapsed, WordPositions positions, int from, int to) {
+
+        for (int i = from; i < to; i++) {
+            final long wordElapsed = elapsed - startOffset[i];
+            if (wordElapsed <= 0) {
+                // not started yet - neither are all following words
+                for (int j = i; j < to; j++) {
+                    positions.update(j, 0.0f);
+                }
+                return;
+            }
+
+            final float fraction = wordElapsed >= duration[i] ? 1.0f : wordElapsed / (float) duration[i];
+            positions.update(i, evaluators[easing[i]].evaluate(fraction, 0.0f, 1.0f));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package mobileapps.aau.at.ab02.animation;
+
+/**
+ * Computes the locations of the words.
+ *
+ * <p>
+ *     Words are broken into lines by a {@link LineBreaker}, each line is centered
+ *     horizontally and all lines together are centered vertically. If the lines are
+ *     higher than the content, they start at the top and the content must be scrolled.
+ * </p>
+ * <p>
+ *     Line breaking is kept between two layouts, so that only the lines affected by a
+ *     changed width are broken again. When the words change instead, their widths are
+ *     compared with the previous ones and only the lines around the changed range are broken
+ *     again. Placing the words is a single pass over all words.
+ * </p>
+ * <p>
+ *     Pure computation on the measured words, so that it might also be run on a
+ *     background thread for large texts. An instance must not be used by several
+ *     threads at the same time.
+ * </p>
+ */
+public final class WordLayout {
+
+    private final LineBreaker lineBreaker;
+
+    // widths the lines were broken with, the previous ones are kept for comparing
+    private int[] widths = new int[0];
+    private int[] previousWidths = new int[0];
+    private int spaceWidth = -1;
+    private int maxWidth = -1;
+    private boolean broken = false;
+
+    /**
+     * Create new layout.
+     *
+     * @param mode Line breaking strategy.
+     */
+    public WordLayout(LineBreaker.Mode mode) {
+        lineBreaker = new LineBreaker(mode);
+    }
+
+    /**
+     * Lay out the words.
+     *
+     * <p>
+     *     Each word starts one content height above its final location and moves down,
+     *     so that the words on the first screen start above the top of the content.
+     *     Locations are the origins of the words, the y coordinate is the baseline.
+     *     Final y coordinates are ascending, see {@link WordPositions#findFirstWithFinalY(float)}.
+     * </p>
+     *
+     * @param words         Measured words.
+     * @param remeasured    Indicating whether the words were measured again since the last layout.
+     * @param contentWidth  Width available for the words.
+     * @param contentHeight Height available for the words.
+     * @param spaceWidth    Horizontal space between two words in pixels.
+     * @param ascent        Ascent of the font (negative, like {@code Paint.FontMetrics}).
+     * @param descent       Descent of the font.
+     * @param spacing       Vertical space between two lines in pixels.
+     * @param positions     Receives the initial and final location of each word.
+     */
+    public void layout(WordStore words, boolean remeasured, int contentWidth, int contentHeight,
+                       int spaceWidth, float ascent, float descent, float spacing, WordPositions positions) {
+
+        breakLines(words, remeasured, contentWidth, spaceWidth);
+
+        final int numLines = lineBreaker.getNumLines();
+        final float lineHeight = descent - ascent + spacing;
+        final float totalHeight = numLines * lineHeight - spacing;
+
+        // baseline of the first line
+        float y = Math.max(0.0f, (contentHeight - totalHeight) / 2) - ascent;
+
+        for (int line = 0; line < numLines; line++) {
+            final int end = lineBreaker.getLineEnd(line);
+            int x = (contentWidth - lineBreaker.getLineWidth(line)) / 2;
+
+            for (int i = lineBreaker.getLineStart(line); i < end; i++) {
+                // origin is left of the bounds by the left side bearing
+                final float originX = x - words.getLeft(i);
+                positions.setLocation(i, originX, y - contentHeight, originX, y);
+                x += words.getWidth(i) + spaceWidth;
+            }
+
+            y += lineHeight;
+        }
+    }
+
+    /**
+     * Get number of lines of the last layout.
+     */
+    public int getNumLines() {
+        return lineBreaker.getNumLines();
+    }
+
+    private void breakLines(WordStore words, boolean remeasured, int contentWidth, int spaceWidth) {
+
+        final boolean sameSpace = broken && spaceWidth == this.spaceWidth;
+        if (sameSpace && !remeasured && widths.length == words.size()) {
+            // only lines which do not fit the new width any more are broken again
+            lineBreaker.setMaxWidth(contentWidth);
+            maxWidth = contentWidth;
+            return;
+        }
+
+        final int[] oldWidths = widths;
+        widths = previousWidths.length == words.size() ? previousWidths : new int[words.size()];
+        previousWidths = oldWidths;
+        for (int i = 0; i < widths.length; i++) {
+            widths[i] = words.getWidth(i);
+        }
+
+        if (sameSpace && contentWidth == maxWidth) {
+            // words before and after the changed range have the same widths as before
+            int from = 0;
+            while (from < oldWidths.length && from < widths.length && oldWidths[from] == widths[from]) {
+                from++;
+            }
+            int oldEnd = oldWidths.length;
+            int newEnd = widths.length;
+            while (oldEnd > from && newEnd > from && oldWidths[oldEnd - 1] == widths[newEnd - 1]) {
+                oldEnd--;
+                newEnd--;
+            }
+            lineBreaker.replaceWords(from, oldEnd - from, newEnd - from, widths, widths.length);
+            return;
+        }
+
+        this.spaceWidth = spaceWidth;
+        maxWidth = contentWidth;
+        lineBreaker.setWords(widths, widths.length, spaceWidth, contentWidth);
+        broken = true;
+    }
+}
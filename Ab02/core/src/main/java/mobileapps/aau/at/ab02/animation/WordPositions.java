@@ -0,0 +1,148 @@
+package mobileapps.aau.at.ab02.animation;
+
+/**
+ * Animated positions of all words.
+ *
+ * <p>
+ *     Positions are kept in primitive arrays, so updating all words on an animation
+ *     frame is a single loop without any allocation.
+ * </p>
+ */
+public final class WordPositions {
+
+    private final float[] initialX;
+    private final float[] initialY;
+    private final float[] finalX;
+    private final float[] finalY;
+    private final float[] currentX;
+    private final float[] currentY;
+
+    /**
+     * Create new positions.
+     *
+     * @param numWords Number of words which are animated.
+     */
+    public WordPositions(int numWords) {
+
+        if (numWords < 0) {
+            throw new IllegalArgumentException("numWords < 0");
+        }
+
+        initialX = new float[numWords];
+        initialY = new float[numWords];
+        finalX = new float[numWords];
+        finalY = new float[numWords];
+        currentX = new float[numWords];
+        currentY = new float[numWords];
+    }
+
+    /**
+     * Create a copy with the same locations.
+     */
+    public WordPositions copy() {
+        WordPositions result = new WordPositions(size());
+        System.arraycopy(initialX, 0, result.initialX, 0, size());
+        System.arraycopy(initialY, 0, result.initialY, 0, size());
+        System.arraycopy(finalX, 0, result.finalX, 0, size());
+        System.arraycopy(finalY, 0, result.finalY, 0, size());
+        System.arraycopy(currentX, 0, result.currentX, 0, size());
+        System.arraycopy(currentY, 0, result.currentY, 0, size());
+        return result;
+    }
+
+    /**
+     * Get number of words.
+     */
+    public int size() {
+        return currentX.length;
+    }
+
+    /**
+     * Set start and end location of a word.
+     *
+     * <p>
+     *     The current location is reset to the initial location.
+     * </p>
+     */
+    public void setLocation(int index, float initialX, float initialY, float finalX, float finalY) {
+        this.initialX[index] = initialX;
+        this.initialY[index] = initialY;
+        this.finalX[index] = finalX;
+        this.finalY[index] = finalY;
+        currentX[index] = initialX;
+        currentY[index] = initialY;
+    }
+
+    /**
+     * Update current locations of all words.
+     *
+     * @param value Animation progress, where 0.0 is the initial and 1.0 the final location.
+     */
+    public void update(float value) {
+
+        // clamp value in range 0.0f - 1.0f
+        value = Math.max(0.0f, Math.min(1.0f, value));
+
+        for (int i = 0; i < currentX.length; i++) {
+            currentX[i] = initialX[i] + Math.round((finalX[i] - initialX[i]) * value);
+            currentY[i] = initialY[i] + Math.round((finalY[i] - initialY[i]) * value);
+        }
+    }
+
+    /**
+     * Update current location of a single word.
+     *
+     * @param index Index of the word.
+     * @param value Animation progress, where 0.0 is the initial and 1.0 the final location.
+     *              Not clamped, so that easing curves may overshoot.
+     */
+    public void update(int index, float value) {
+        currentX[index] = initialX[index] + Math.round((finalX[index] - initialX[index]) * value);
+        currentY[index] = initialY[index] + Math.round((finalY[index] - initialY[index]) * value);
+    }
+
+    /**
+     * Get final y-coordinate of a word.
+     */
+    public float getFinalY(int index) {
+        return finalY[index];
+    }
+
+    /**
+     * Find the first word whose final y-coordinate is not less than the given one.
+     *
+     * <p>
+     *     Requires the final y-coordinates to be sorted in ascending order,
+     *     which is the case for words laid out in lines by {@link WordLayout}.
+     * </p>
+     *
+     * @return Index of the word, or {@link #size()} if there is no such word.
+     */
+    public int findFirstWithFinalY(float y) {
+        int low = 0;
+        int high = finalY.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (finalY[middle] < y) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Get current x-coordinate of a word.
+     */
+    public float getX(int index) {
+        return currentX[index];
+    }
+
+    /**
+     * Get current y-coordinate of a word.
+     */
+    public float getY(int index) {
+        return currentY[index];
+    }
+}
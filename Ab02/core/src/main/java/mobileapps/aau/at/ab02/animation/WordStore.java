@@ -0,0 +1,177 @@
+package mobileapps.aau.at.ab02.animation;
+
+import java.util.Arrays;
+
+/**
+ * Structure of arrays storing all words and their measurements.
+ *
+ * <p>
+ *     The characters of all words are kept in one array, so each word is drawn
+ *     straight from it with {@code Canvas.drawText(char[], int, int, float, float, Paint)}
+ *     at its origin. Drawing whole words keeps their shaping, i.e. kerning, ligatures,
+ *     surrogate pairs, combining marks and complex scripts.
+ * </p>
+ */
+public final class WordStore {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private char[] chars = new char[INITIAL_CAPACITY * 8];
+    private int numChars = 0;
+
+    private int[] wordStart = new int[INITIAL_CAPACITY];
+    private int[] wordLength = new int[INITIAL_CAPACITY];
+    private int[] left = new int[INITIAL_CAPACITY];
+    private int[] top = new int[INITIAL_CAPACITY];
+    private int[] width = new int[INITIAL_CAPACITY];
+    private int[] height = new int[INITIAL_CAPACITY];
+    private int numWords = 0;
+
+    /**
+     * Add a word.
+     *
+     * <p>
+     *     The word must be measured using {@link #setMeasurements(int, int, int, int, int)}
+     *     before it can be laid out.
+     * </p>
+     *
+     * @param source Buffer containing the word to add.
+     * @param start  Index of the word's first character.
+     * @param length Number of characters of the word.
+     * @return Index of the added word.
+     */
+    public int add(char[] source, int start, int length) {
+
+        ensureWordCapacity(numWords + 1);
+        ensureCharCapacity(numChars + length);
+
+        System.arraycopy(source, start, chars, numChars, length);
+        wordStart[numWords] = numChars;
+        wordLength[numWords] = length;
+        left[numWords] = 0;
+        top[numWords] = 0;
+        width[numWords] = 0;
+        height[numWords] = 0;
+
+        numChars += length;
+        return numWords++;
+    }
+
+    /**
+     * Set the measurements of a word.
+     *
+     * @param index    Index of the word.
+     * @param left     Left of the word's bounds, relative to the origin the text is drawn at.
+     * @param top      Top of the word's bounds, relative to the baseline the text is drawn at.
+     * @param width    Width of the word's bounds.
+     * @param height   Height of the word's bounds.
+     */
+    public void setMeasurements(int index, int left, int top, int width, int height) {
+        this.left[index] = left;
+        this.top[index] = top;
+        this.width[index] = width;
+        this.height[index] = height;
+    }
+
+    /**
+     * Get number of words.
+     */
+    public int size() {
+        return numWords;
+    }
+
+    /**
+     * Get total number of characters of all words.
+     */
+    public int getNumChars() {
+        return numChars;
+    }
+
+    /**
+     * Get the characters of all words.
+     *
+     * <p>
+     *     The returned array is the internal one and might be larger than {@link #getNumChars()}.
+     * </p>
+     */
+    public char[] getChars() {
+        return chars;
+    }
+
+    /**
+     * Get index of the word's first character in {@link #getChars()}.
+     */
+    public int getWordStart(int index) {
+        return wordStart[index];
+    }
+
+    /**
+     * Get number of characters of the word.
+     */
+    public int getWordLength(int index) {
+        return wordLength[index];
+    }
+
+    public int getLeft(int index) {
+        return left[index];
+    }
+
+    public int getTop(int index) {
+        return top[index];
+    }
+
+    public int getWidth(int index) {
+        return width[index];
+    }
+
+    public int getHeight(int index) {
+        return height[index];
+    }
+
+    /**
+     * Get the word at the given index.
+     */
+    public String getWord(int index) {
+        return new String(chars, wordStart[index], wordLength[index]);
+    }
+
+    /**
+     * Create a copy of all words and their measurements.
+     */
+    public WordStore copy() {
+        WordStore result = new WordStore();
+        result.chars = Arrays.copyOf(chars, numChars);
+        result.numChars = numChars;
+        result.wordStart = Arrays.copyOf(wordStart, numWords);
+        result.wordLength = Arrays.copyOf(wordLength, numWords);
+        result.left = Arrays.copyOf(left, numWords);
+        result.top = Arrays.copyOf(top, numWords);
+        result.width = Arrays.copyOf(width, numWords);
+        result.height = Arrays.copyOf(height, numWords);
+        result.numWords = numWords;
+        return result;
+    }
+
+    private void ensureWordCapacity(int capacity) {
+        if (capacity <= wordStart.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, wordStart.length * 2);
+        wordStart = Arrays.copyOf(wordStart, newCapacity);
+        wordLength = Arrays.copyOf(wordLength, newCapacity);
+        left = Arrays.copyOf(left, newCapacity);
+        top = Arrays.copyOf(top, newCapacity);
+        width = Arrays.copyOf(width, newCapacity);
+        height = Arrays.copyOf(height, newCapacity);
+    }
+
+    private void ensureCharCapacity(int capacity) {
+        if (capacity <= chars.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, chars.length * 2);
+        chars = Arrays.copyOf(chars, newCapacity);
+    }
+}
@@ -0,0 +1,249 @@
+package mobileapps.aau.at.ab02.animation;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Streaming whitespace tokenizer.
+ *
+ * <p>
+ *     Splits a text into words, similar to <code>text.split("\\s+")</code> followed by
+ *     trimming each word, but without regular expressions and without creating
+ *     substrings. The text is read in chunks into an internal buffer and each word is
+ *     reported as offset and length into this buffer, so arbitrarily large texts
+ *     can be processed with constant memory (apart from the longest word).
+ * </p>
+ * <p>
+ *     Usage:
+ *     <pre>
+ *     WordTokenizer tokenizer = new WordTokenizer(text);
+ *     while (tokenizer.nextWord()) {
+ *         process(tokenizer.getBuffer(), tokenizer.getWordStart(), tokenizer.getWordLength());
+ *     }
+ *     </pre>
+ * </p>
+ */
+public final class WordTokenizer {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final CharSequence text;
+
+    private char[] buffer;
+    private int position = 0;
+    private int limit = 0;
+    private boolean endOfInput = false;
+
+    // absolute offset of buffer[0] in the text
+    private long bufferOffset = 0;
+
+    private int wordStart = 0;
+    private int wordLength = 0;
+
+    /**
+     * Create tokenizer for an in memory text.
+     */
+    public WordTokenizer(CharSequence text) {
+        this(text, null, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Create tokenizer reading the text from a reader.
+     *
+     * <p>
+     *     The reader is not closed by the tokenizer.
+     * </p>
+     */
+    public WordTokenizer(Reader reader) {
+        this(null, reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    public WordTokenizer(Reader reader, int bufferSize) {
+        this(null, reader, bufferSize);
+    }
+
+    private WordTokenizer(CharSequence text, Reader reader, int bufferSize) {
+
+        if (text == null && reader == null) {
+            throw new IllegalArgumentException("text is null");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize <= 0");
+        }
+
+        this.text = text;
+        this.reader = reader;
+        this.buffer = new char[text != null ? Math.max(1, Math.min(bufferSize, text.length())) : bufferSize];
+    }
+
+    /**
+     * Advance to the next word.
+     *
+     * @return <code>true</code> if a word was found, <code>false</code> if the end of the text is reached.
+     * @throws IOException If reading from the underlying reader fails.
+     */
+    public boolean nextWord() throws IOException {
+
+        // skip leading whitespace
+        while (true) {
+            if (position == limit) {
+                // nothing to keep from the previous chunk
+                bufferOffset += limit;
+                position = 0;
+                limit = 0;
+                if (!fill()) {
+                    wordLength = 0;
+                    return false;
+                }
+            }
+            if (!isWhitespace(buffer[position])) {
+                break;
+            }
+            position++;
+        }
+
+        // scan the word
+        int start = position;
+        while (true) {
+            if (position == limit) {
+                // word continues in the next chunk - move it to the front of the buffer
+                int length = position - start;
+                compact(start);
+                start = 0;
+                position = length;
+                if (!fill()) {
+                    break;
+                }
+            }
+            if (isWhitespace(buffer[position])) {
+                break;
+            }
+            position++;
+        }
+
+        wordStart = start;
+        wordLength = position - start;
+        return true;
+    }
+
+    /**
+     * Get the buffer containing the current word.
+     *
+     * <p>
+     *     The contents of the buffer are only valid until the next call to {@link #nextWord()}.
+     * </p>
+     */
+    public char[] getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Get index of the first character of the current word in {@link #getBuffer()}.
+     */
+    public int getWordStart() {
+        return wordStart;
+    }
+
+    /**
+     * Get number of characters of the current word.
+     */
+    public int getWordLength() {
+        return wordLength;
+    }
+
+    /**
+     * Get offset of the current word in the whole text.
+     */
+    public long getWordOffset() {
+        return bufferOffset + wordStart;
+    }
+
+    /**
+     * Get the current word as string.
+     *
+     * <p>
+     *     Convenience method, which allocates a new string.
+     * </p>
+     */
+    public String getWord() {
+        return new String(buffer, wordStart, wordLength);
+    }
+
+    /**
+     * Test if a character separates words.
+     *
+     * <p>
+     *     Separators are all characters up to the space, i.e. everything removed by
+     *     {@link String#trim()}, which includes the regular expression <code>\s</code>, plus
+     *     the characters accepted by {@link Character#isWhitespace(char)}, such as the Unicode
+     *     space, line and paragraph separators. Different from splitting with <code>\s+</code>
+     *     and trimming, control characters and Unicode spaces within a word split it, too.
+     *     No-break spaces are not separators and keep a word together.
+     * </p>
+     */
+    public static boolean isWhitespace(char c) {
+        return c <= ' ' || Character.isWhitespace(c);
+    }
+
+    /**
+     * Move the characters starting at the given index to the front of the buffer.
+     */
+    private void compact(int from) {
+        int length = limit - from;
+        if (from == 0 && length == buffer.length) {
+            // a single word fills the whole buffer
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        } else if (length > 0) {
+            System.arraycopy(buffer, from, buffer, 0, length);
+        }
+
+        bufferOffset += from;
+        limit = length;
+    }
+
+    /**
+     * Append the next chunk of text to the buffer.
+     *
+     * @return <code>true</code> if new characters are available, <code>false</code> at the end of the text.
+     */
+    private boolean fill() throws IOException {
+
+        if (endOfInput) {
+            return false;
+        }
+
+        int read = text != null ? readText() : reader.read(buffer, limit, buffer.length - limit);
+        if (read <= 0) {
+            endOfInput = true;
+            return false;
+        }
+
+        limit += read;
+        return true;
+    }
+
+    /**
+     * Copy the next chunk of the in memory text into the buffer.
+     */
+    private int readText() {
+        long offset = bufferOffset + limit;
+        int count = (int) Math.min(buffer.length - limit, text.length() - offset);
+        if (count <= 0) {
+            return -1;
+        }
+
+        int begin = (int) offset;
+        if (text instanceof String) {
+            ((String) text).getChars(begin, begin + count, buffer, limit);
+        } else if (text instanceof StringBuilder) {
+            ((StringBuilder) text).getChars(begin, begin + count, buffer, limit);
+        } else {
+            for (int i = 0; i < count; i++) {
+                buffer[limit + i] = text.charAt(begin + i);
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,80 @@
+package mobileapps.aau.at.ab02.animation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link Easing} and {@link EasingLookupTable}.
+ */
+public class EasingLookupTableTest {
+
+    private static final int NUM_TEST_POINTS = 100000;
+
+    @Test
+    public void allCurvesStartAtZeroAndEndAtOne() throws Exception {
+        for (Easing easing : Easing.values()) {
+            assertEquals(easing.name(), 0.0f, easing.ease(0.0f), 1e-6f);
+            assertEquals(easing.name(), 1.0f, easing.ease(1.0f), 1e-6f);
+        }
+    }
+
+    @Test
+    public void lookupTableStaysWithinAccuracyBound() throws Exception {
+        for (Easing easing : Easing.values()) {
+            EasingLookupTable table = new EasingLookupTable(easing);
+
+            float maxError = 0.0f;
+            for (int i = 0; i <= NUM_TEST_POINTS; i++) {
+                float t = i / (float) NUM_TEST_POINTS;
+                maxError = Math.max(maxError, Math.abs(table.ease(t) - easing.ease(t)));
+            }
+
+            assertTrue(easing.name() + " error " + maxError, maxError <= accuracyBound(easing));
+        }
+    }
+
+    @Test
+    public void lookupTableClampsFraction() throws Exception {
+        EasingLookupTable table = new EasingLookupTable(Easing.EXPO_OUT);
+
+        assertEquals(0.0f, table.ease(-1.0f), 0.0f);
+        assertEquals(1.0f, table.ease(2.0f), 0.0f);
+    }
+
+    @Test
+    public void evaluatorsScaleToStartAndEndValue() throws Exception {
+        for (Easing easing : Easing.values()) {
+            PrimitiveFloatEvaluator evaluator = easing.createEvaluator();
+            assertEquals(easing.name(), 10.0f, evaluator.evaluate(0.0f, 10.0f, 20.0f), 1e-5f);
+            assertEquals(easing.name(), 20.0f, evaluator.evaluate(1.0f, 10.0f, 20.0f), 1e-5f);
+        }
+    }
+
+    /**
+     * Maximum absolute error of a table with the default number of samples.
+     *
+     * <p>
+     *     Smooth curves are approximated very well by linear interpolation,
+     *     whereas the jump of the expo curves at 0/1, the oscillation of the elastic curves
+     *     and the kinks of the bounce curves cost some precision.
+     * </p>
+     */
+    private static float accuracyBound(Easing easing) {
+        switch (easing) {
+            case EXPO_IN:
+            case EXPO_OUT:
+            case EXPO_IN_OUT:
+            case ELASTIC_IN:
+            case ELASTIC_OUT:
+            case ELASTIC_IN_OUT:
+                return 1e-3f;
+            case BOUNCE_IN:
+            case BOUNCE_OUT:
+            case BOUNCE_IN_OUT:
+                return 2e-3f;
+            default:
+                return 1e-5f;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package mobileapps.aau.at.ab02.animation;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link LineBreaker}.
+ */
+public class LineBreakerTest {
+
+    private static final int SPACE = 10;
+
+    @Test
+    public void greedyPutsAsManyWordsAsPossibleOnEachLine() throws Exception {
+        LineBreaker lineBreaker = new LineBreaker(LineBreaker.Mode.GREEDY);
+        lineBreaker.setWords(new int[]{30, 30, 20, 80, 10, 30}, 6, SPACE, 100);
+
+        assertArrayEquals(new int[]{0, 3, 5}, lineStarts(lineBreaker));
+        assertEquals(100, lineBreaker.getLineWidth(1));
+    }
+
+    @Test
+    public void tooLongWordsGetTheirOwnLine() throws Exception {
+        LineBreaker lineBreaker = new LineBreaker(LineBreaker.Mode.GREEDY);
+        lineBreaker.setWords(new int[]{20, 200, 20}, 3, SPACE, 100);
+
+        assertArrayEquals(new int[]{0, 1, 2}, lineStarts(lineBreaker));
+    }
+
+    @Test
+    public void minimumRaggednessBalancesLines() throws Exception {
+        // greedy: "aaa bb | cc | ddddd" - minimum raggedness: "aaa | bb cc | ddddd"
+        int[] widths = {30, 20, 20, 50};
+
+        LineBreaker greedy = new LineBreaker(LineBreaker.Mode.GREEDY);
+        greedy.setWords(widths, widths.length, SPACE, 70);
+        assertArrayEquals(new int[]{0, 2, 3}, lineStarts(greedy));
+
+        LineBreaker balanced = new LineBreaker(LineBreaker.Mode.MINIMUM_RAGGEDNESS);
+        balanced.setWords(widths, widths.length, SPACE, 70);
+        assertArrayEquals(new int[]{0, 1, 3}, lineStarts(balanced));
+    }
+
+    @Test
+    public void minimumRaggednessKeepsTooLongLastWordOnTheLastLine() throws Exception {
+        // same as above, but the last word does not fit into any line
+        int[] widths = {30, 20, 20, 200};
+
+        LineBreaker balanced = new LineBreaker(LineBreaker.Mode.MINIMUM_RAGGEDNESS);
+        balanced.setWords(widths, widths.length, SPACE, 70);
+        assertArrayEquals(new int[]{0, 1, 3}, lineStarts(balanced));
+
+        balanced.setMaxWidth(60);
+        assertSameLines(LineBreaker.Mode.MINIMUM_RAGGEDNESS, widths, widths.length, 60, balanced);
+    }
+
+    @Test
+    public void widthChangeOnlyBreaksInvalidLines() throws Exception {
+        // all words have the same width, so at most one line is affected by a small change
+        int[] widths = new int[10000];
+        Arrays.fill(widths, 50);
+        widths[5000] = 95;
+
+        LineBreaker lineBreaker = new LineBreaker(LineBreaker.Mode.GREEDY);
+        lineBreaker.setWords(widths, widths.length, SPACE, 100);
+        lineBreaker.setMaxWidth(105);
+
+        assertEquals(0, lineBreaker.getNumLinesBroken());
+        assertSameLines(LineBreaker.Mode.GREEDY, widths, widths.length, 105, lineBreaker);
+    }
+
+    @Test
+    public void incrementalUpdatesMatchFullLineBreaking() throws Exception {
+        for (LineBreaker.Mode mode : LineBreaker.Mode.values()) {
+            Random random = new Random(42);
+            int[] widths = randomWidths(random, 5000);
+            int numWords = widths.length;
+            int maxWidth = 400;
+
+            LineBreaker lineBreaker = new LineBreaker(mode);
+            lineBreaker.setWords(widths, numWords, SPACE, maxWidth);
+
+            for (int iteration = 0; iteration < 50; iteration++) {
+                if (random.nextBoolean()) {
+                    maxWidth = 200 + random.nextInt(400);
+                    lineBreaker.setMaxWidth(maxWidth);
+                } else {
+                    int from = random.nextInt(numWords);
+                    int oldCount = Math.min(numWords - from, random.nextInt(4));
+                    int newCount = random.nextInt(4);
+                    int[] inserted = randomWidths(random, newCount);
+
+                    int[] newWidths = new int[numWords - oldCount + newCount];
+                    System.arraycopy(widths, 0, newWidths, 0, from);
+                    System.arraycopy(inserted, 0, newWidths, from, newCount);
+                    System.arraycopy(widths, from + oldCount, newWidths, from + newCount,
+                            numWords - from - oldCount);
+                    widths = newWidths;
+                    numWords = newWidths.length;
+
+                    lineBreaker.replaceWords(from, oldCount, newCount, widths, numWords);
+                }
+
+                assertSameLines(mode, widths, numWords, maxWidth, lineBreaker);
+            }
+        }
+    }
+
+    @Test
+    public void textChangeStopsBreakingWhenLinesAreTheSameAgain() throws Exception {
+        int[] widths = randomWidths(new Random(7), 100000);
+
+        LineBreaker lineBreaker = new LineBreaker(LineBreaker.Mode.GREEDY);
+        lineBreaker.setWords(widths, widths.length, SPACE, 500);
+        int numLines = lineBreaker.getNumLines();
+
+        widths[50000] += 5;
+        lineBreaker.replaceWords(50000, 1, 1, widths, widths.length);
+
+        assertTrue(lineBreaker.getNumLinesBroken() < 10);
+        assertTrue(lineBreaker.getNumLinesBroken() < numLines / 100);
+        assertSameLines(LineBreaker.Mode.GREEDY, widths, widths.length, 500, lineBreaker);
+    }
+
+    private static void assertSameLines(LineBreaker.Mode mode, int[] widths, int numWords, int maxWidth,
+                                        LineBreaker actual) {
+        LineBreaker expected = new LineBreaker(mode);
+        expected.setWords(widths, numWords, SPACE, maxWidth);
+        assertArrayEquals(mode.name(), lineStarts(expected), lineStarts(actual));
+    }
+
+    private static int[] lineStarts(LineBreaker lineBreaker) {
+        int[] result = new int[lineBreaker.getNumLines()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = lineBreaker.getLineStart(i);
+        }
+        return result;
+    }
+
+    private static int[] randomWidths(Random random, int numWords) {
+        int[] widths = new int[numWords];
+        for (int i = 0; i < numWords; i++) {
+            widths[i] = 10 + random.nextInt(120);
+        }
+        return widths;
+    }
+}
@@ -0,0 +1,88 @@
+package mobileapps.aau.at.ab02.animation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link Timeline}.
+ */
+public class TimelineTest {
+
+    @Test
+    public void wordsAreStartedOneAfterTheOther() throws Exception {
+        WordPositions positions = createPositions(3);
+        Timeline timeline = Timeline.staggered(3, 0, 100, 1000, 1000, Easing.LINEAR);
+
+        assertTrue(timeline.update(50, positions));
+        assertEquals(5.0f, positions.getY(0), 0.0f);
+        assertEquals(0.0f, positions.getY(1), 0.0f);
+        assertEquals(0.0f, positions.getY(2), 0.0f);
+
+        assertTrue(timeline.update(250, positions));
+        assertEquals(25.0f, positions.getY(0), 0.0f);
+        assertEquals(15.0f, positions.getY(1), 0.0f);
+        assertEquals(5.0f, positions.getY(2), 0.0f);
+
+        assertTrue(timeline.update(1100, positions));
+        assertEquals(100.0f, positions.getY(0), 0.0f);
+        assertEquals(100.0f, positions.getY(1), 0.0f);
+        assertEquals(90.0f, positions.getY(2), 0.0f);
+
+        assertFalse(timeline.update(1200, positions));
+        assertEquals(100.0f, positions.getY(2), 0.0f);
+        assertEquals(1200, timeline.getTotalDuration());
+    }
+
+    @Test
+    public void staggerIsReducedToMaximumSpread() throws Exception {
+        Timeline timeline = Timeline.staggered(1001, 500, 100, 2000, 2000, Easing.LINEAR);
+
+        // last word starts 2sec after the first one instead of 100sec
+        assertEquals(500 + 2000 + 2000, timeline.getTotalDuration());
+    }
+
+    @Test
+    public void restartingMovesWordsBackToInitialLocation() throws Exception {
+        WordPositions positions = createPositions(2);
+        Timeline timeline = Timeline.staggered(2, 0, 500, 1000, 1000, Easing.LINEAR);
+
+        timeline.update(2000, positions);
+        assertEquals(100.0f, positions.getY(1), 0.0f);
+
+        timeline.update(0, positions);
+        assertEquals(0.0f, positions.getY(0), 0.0f);
+        assertEquals(0.0f, positions.getY(1), 0.0f);
+    }
+
+    @Test
+    public void rangeUpdateOnlyTouchesWordsInRange() throws Exception {
+        WordPositions positions = createPositions(4);
+        Timeline timeline = Timeline.staggered(4, 0, 100, 1000, 1000, Easing.LINEAR);
+
+        timeline.update(250, positions, 1, 3);
+        assertEquals(0.0f, positions.getY(0), 0.0f);
+        assertEquals(15.0f, positions.getY(1), 0.0f);
+        assertEquals(5.0f, positions.getY(2), 0.0f);
+        assertEquals(0.0f, positions.getY(3), 0.0f);
+
+        // words entering the range later are evaluated even after the animation has finished
+        timeline.update(5000, positions, 3, 4);
+        assertEquals(100.0f, positions.getY(3), 0.0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decreasingStartOffsetsAreRejected() throws Exception {
+        Timeline timeline = new Timeline(2);
+        timeline.set(0, 100, 1000, Easing.LINEAR);
+        timeline.set(1, 50, 1000, Easing.LINEAR);
+    }
+
+    private static WordPositions createPositions(int numWords) {
+        WordPositions positions = new WordPositions(numWords);
+        for (int i = 0; i < numWords; i++) {
+            positions.setLocation(i, 0.0f, 0.0f, 0.0f, 100.0f);
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,87 @@
+package mobileapps.aau.at.ab02.animation;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link WordLayout}.
+ */
+public class WordLayoutTest {
+
+    private static final int SPACE = 10;
+    private static final int HEIGHT = 1000;
+
+    @Test
+    public void changedWordsAndWidthsMatchNewLayout() throws Exception {
+        for (LineBreaker.Mode mode : LineBreaker.Mode.values()) {
+            Random random = new Random(42);
+            int[] widths = randomWidths(random, 2000);
+            int contentWidth = 400;
+
+            WordLayout layout = new WordLayout(mode);
+            layout(layout, widths, contentWidth);
+
+            for (int iteration = 0; iteration < 50; iteration++) {
+                boolean remeasured = true;
+                switch (random.nextInt(3)) {
+                    case 0:
+                        contentWidth = 200 + random.nextInt(400);
+                        remeasured = false;
+                        break;
+                    case 1:
+                        // words replaced in the middle of the text, e.g. an edited text
+                        int from = random.nextInt(widths.length);
+                        int oldCount = Math.min(widths.length - from, random.nextInt(4));
+                        int newCount = random.nextInt(4);
+                        int[] newWidths = new int[widths.length - oldCount + newCount];
+                        System.arraycopy(widths, 0, newWidths, 0, from);
+                        System.arraycopy(randomWidths(random, newCount), 0, newWidths, from, newCount);
+                        System.arraycopy(widths, from + oldCount, newWidths, from + newCount,
+                                widths.length - from - oldCount);
+                        widths = newWidths;
+                        break;
+                    default:
+                        // measured again, but the same widths
+                        break;
+                }
+
+                WordPositions actual = layout(layout, widths, contentWidth, remeasured);
+                WordPositions expected = layout(new WordLayout(mode), widths, contentWidth);
+                assertEquals(mode.name(), expected.size(), actual.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(mode.name(), expected.getX(i), actual.getX(i), 0.0f);
+                    assertEquals(mode.name(), expected.getFinalY(i), actual.getFinalY(i), 0.0f);
+                }
+            }
+        }
+    }
+
+    private static WordPositions layout(WordLayout layout, int[] widths, int contentWidth) {
+        return layout(layout, widths, contentWidth, true);
+    }
+
+    private static WordPositions layout(WordLayout layout, int[] widths, int contentWidth, boolean remeasured) {
+        WordStore words = new WordStore();
+        char[] word = {'w'};
+        for (int width : widths) {
+            int index = words.add(word, 0, word.length);
+            words.setMeasurements(index, 0, -50, width, 60);
+        }
+
+        WordPositions positions = new WordPositions(words.size());
+        layout.layout(words, remeasured, contentWidth, HEIGHT, SPACE, -50.0f, 10.0f, 5.0f, positions);
+        positions.update(1.0f);
+        return positions;
+    }
+
+    private static int[] randomWidths(Random random, int count) {
+        int[] widths = new int[count];
+        for (int i = 0; i < count; i++) {
+            widths[i] = 10 + random.nextInt(150);
+        }
+        return widths;
+    }
+}
@@ -0,0 +1,96 @@
+package mobileapps.aau.at.ab02.animation;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Unit tests for {@link WordPositions}.
+ */
+public class WordPositionsTest {
+
+    private static final int NUM_WORDS = 1000;
+    private static final int NUM_FRAMES = 120; // 2sec animation at 60fps
+
+    @Test
+    public void updateInterpolatesBetweenInitialAndFinalLocation() throws Exception {
+        WordPositions positions = new WordPositions(1);
+        positions.setLocation(0, 10.0f, -20.0f, 10.0f, 100.0f);
+
+        assertEquals(10.0f, positions.getX(0), 0.0f);
+        assertEquals(-20.0f, positions.getY(0), 0.0f);
+
+        positions.update(0.5f);
+        assertEquals(10.0f, positions.getX(0), 0.0f);
+        assertEquals(40.0f, positions.getY(0), 0.0f);
+
+        positions.update(1.0f);
+        assertEquals(100.0f, positions.getY(0), 0.0f);
+
+        // values out of range are clamped
+        positions.update(1.5f);
+        assertEquals(100.0f, positions.getY(0), 0.0f);
+        positions.update(-1.0f);
+        assertEquals(-20.0f, positions.getY(0), 0.0f);
+    }
+
+    @Test
+    public void findFirstWithFinalYSearchesSortedLines() throws Exception {
+        WordPositions positions = new WordPositions(5);
+        float[] lines = {10.0f, 10.0f, 20.0f, 20.0f, 30.0f};
+        for (int i = 0; i < lines.length; i++) {
+            positions.setLocation(i, 0.0f, 0.0f, 0.0f, lines[i]);
+        }
+
+        assertEquals(0, positions.findFirstWithFinalY(-5.0f));
+        assertEquals(0, positions.findFirstWithFinalY(10.0f));
+        assertEquals(2, positions.findFirstWithFinalY(15.0f));
+        assertEquals(4, positions.findFirstWithFinalY(30.0f));
+        assertEquals(5, positions.findFirstWithFinalY(31.0f));
+    }
+
+    @Test
+    public void completeAnimationRunDoesNotAllocate() throws Exception {
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeAllocationCounting(threadMXBean);
+
+        WordPositions positions = new WordPositions(NUM_WORDS);
+        for (int i = 0; i < NUM_WORDS; i++) {
+            positions.setLocation(i, i, -i, i, 10 * i);
+        }
+        PrimitiveFloatEvaluator evaluator = Easing.ELASTIC_OUT.createEvaluator();
+
+        // warm up, so that class loading & co. is not counted
+        runAnimation(evaluator, positions);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        runAnimation(evaluator, positions);
+        long after = threadMXBean.getThreadAllocatedBytes(threadId);
+
+        assertEquals(0L, after - before - measurementOverhead(threadMXBean));
+    }
+
+    private static void runAnimation(PrimitiveFloatEvaluator evaluator, WordPositions positions) {
+        for (int frame = 0; frame <= NUM_FRAMES; frame++) {
+            float fraction = frame / (float) NUM_FRAMES;
+            positions.update(evaluator.evaluate(fraction, 0.0f, 1.0f));
+        }
+    }
+
+    private static long measurementOverhead(com.sun.management.ThreadMXBean threadMXBean) {
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        long after = threadMXBean.getThreadAllocatedBytes(threadId);
+        return after - before;
+    }
+
+    private static void assumeAllocationCounting(com.sun.management.ThreadMXBean threadMXBean) {
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+}
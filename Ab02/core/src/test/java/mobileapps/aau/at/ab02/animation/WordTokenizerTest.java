@@ -0,0 +1,97 @@
+package mobileapps.aau.at.ab02.animation;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link WordTokenizer}.
+ */
+public class WordTokenizerTest {
+
+    private static final String[] TEXTS = {
+            "",
+            "   ",
+            "word",
+            "  Hello   World \n",
+            "The\tquick\r\nbrown  fox\u000Bjumps\fover the lazy dog",
+            "a b c d e f g h i j k l m n o p q r s t u v w x y z",
+            "supercalifragilisticexpialidocious is a rather long word",
+    };
+
+    @Test
+    public void tokenizesLikeSplitAndTrim() throws Exception {
+        for (String text : TEXTS) {
+            assertEquals(text, splitAndTrim(text), tokenize(new WordTokenizer(text)));
+        }
+    }
+
+    @Test
+    public void wordsSpanningChunksAreReportedCompletely() throws Exception {
+        for (String text : TEXTS) {
+            // tiny buffer forces words to cross chunk boundaries and the buffer to grow
+            assertEquals(text, splitAndTrim(text), tokenize(new WordTokenizer(new StringReader(text), 3)));
+        }
+    }
+
+    @Test
+    public void reportsOffsetsInWholeText() throws Exception {
+        String text = "  first second\tthird ";
+        WordTokenizer tokenizer = new WordTokenizer(new StringReader(text), 4);
+
+        List<Long> offsets = new ArrayList<>();
+        while (tokenizer.nextWord()) {
+            offsets.add(tokenizer.getWordOffset());
+        }
+
+        assertEquals(Arrays.asList(2L, 8L, 15L), offsets);
+    }
+
+    @Test
+    public void separatorsCoverSplitAndTrim() {
+        for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+            final String s = String.valueOf((char) c);
+            if (s.matches("\\s") || s.trim().isEmpty()) {
+                assertTrue(Integer.toHexString(c), WordTokenizer.isWhitespace((char) c));
+            }
+        }
+    }
+
+    @Test
+    public void controlCharactersAndUnicodeSpacesSplitWords() throws Exception {
+        // split and trim would keep these within the words
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e", "f"),
+                tokenize(new WordTokenizer("a\u0000b\u001Fc\u2003d\u2028e\u3000f")));
+
+        // no-break spaces are no separators
+        assertEquals(Arrays.asList("10\u00A0km", "1\u202F000", "x\u2007y"),
+                tokenize(new WordTokenizer("10\u00A0km 1\u202F000 x\u2007y")));
+    }
+
+    private static List<String> tokenize(WordTokenizer tokenizer) throws IOException {
+        List<String> words = new ArrayList<>();
+        while (tokenizer.nextWord()) {
+            words.add(tokenizer.getWord());
+        }
+        return words;
+    }
+
+    /**
+     * Reference implementation as previously used in AnimationView.
+     */
+    private static List<String> splitAndTrim(String text) {
+        List<String> result = new ArrayList<>();
+        for (String word : text.split("\\s+")) {
+            if (!word.trim().isEmpty()) {
+                result.add(word.trim());
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,52 @@
+package mobileapps.aau.at.ab02.animation;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Generated texts and words shared by the benchmarks.
+ */
+final class BenchmarkTexts {
+
+    private static final String[] WORDS = {
+            "a", "the", "word", "falling", "animation", "Label", "phrase", "Hello", "World",
+            "incomprehensibilities", "x", "list", "row", "Android", "Canvas", "typography"
+    };
+
+    // advance of each character in pixels, roughly like a 72px sans serif font
+    private static final float ADVANCE = 36.0f;
+
+    private BenchmarkTexts() {
+        // utility class
+    }
+
+    /**
+     * Create a text of words separated by spaces and occasional line breaks.
+     */
+    static String create(int numWords, Random random) {
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < numWords; i++) {
+            if (i > 0) {
+                text.append(random.nextInt(12) == 0 ? '\n' : ' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Split a text into words with measurements as {@code PreparedWords} would take them from
+     * the paint, every character has the same width.
+     */
+    static WordStore measure(String text) throws IOException {
+        final WordStore words = new WordStore();
+        final WordTokenizer tokenizer = new WordTokenizer(text);
+
+        while (tokenizer.nextWord()) {
+            final int length = tokenizer.getWordLength();
+            final int index = words.add(tokenizer.getBuffer(), tokenizer.getWordStart(), length);
+            words.setMeasurements(index, 2, -52, Math.round(length * ADVANCE) - 4, 66);
+        }
+        return words;
+    }
+}
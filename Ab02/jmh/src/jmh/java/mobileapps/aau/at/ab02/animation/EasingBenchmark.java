@@ -0,0 +1,50 @@
+package mobileapps.aau.at.ab02.animation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of evaluating an easing curve directly compared to its {@link EasingLookupTable},
+ * per evaluated fraction.
+ */
+@State(Scope.Benchmark)
+public class EasingBenchmark {
+
+    private static final int NUM_FRACTIONS = 1000;
+
+    @Param({"LINEAR", "CUBIC_IN_OUT", "SINE_IN_OUT", "EXPO_IN_OUT", "ELASTIC_OUT", "BOUNCE_OUT"})
+    public Easing easing;
+
+    private PrimitiveFloatEvaluator direct;
+    private PrimitiveFloatEvaluator lookupTable;
+
+    @Setup
+    public void setUp() {
+        direct = new EasingEvaluator(easing);
+        lookupTable = new EasingLookupTable(easing);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_FRACTIONS)
+    public float direct() {
+        return evaluateAll(direct);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_FRACTIONS)
+    public float lookupTable() {
+        return evaluateAll(lookupTable);
+    }
+
+    private static float evaluateAll(PrimitiveFloatEvaluator evaluator) {
+        float sum = 0.0f;
+        for (int i = 0; i < NUM_FRACTIONS; i++) {
+            sum += evaluator.evaluate(i / (float) NUM_FRACTIONS, 0.0f, 1000.0f);
+        }
+        return sum;
+    }
+}
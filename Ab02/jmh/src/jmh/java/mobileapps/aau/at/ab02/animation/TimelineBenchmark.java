@@ -0,0 +1,50 @@
+package mobileapps.aau.at.ab02.animation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Cost of one animation frame without drawing, i.e. updating the timeline of all words.
+ */
+@State(Scope.Benchmark)
+public class TimelineBenchmark {
+
+    // frame interval at 60 Hz in milliseconds
+    private static final long FRAME_INTERVAL = 16;
+
+    @Param({"1000", "10000"})
+    public int numWords;
+
+    @Param({"QUAD_OUT", "BOUNCE_OUT"})
+    public Easing easing;
+
+    private WordStore words;
+    private Timeline timeline;
+    private WordPositions positions;
+    private long elapsed = 0;
+
+    @Setup
+    public void setUp() throws IOException {
+        words = BenchmarkTexts.measure(BenchmarkTexts.create(numWords, new Random(42)));
+        positions = new WordPositions(words.size());
+        new WordLayout(LineBreaker.Mode.GREEDY).layout(words, true, 1080, 1920, 20, -67.0f, 18.0f, 8.0f,
+                positions);
+
+        // all words are moving at the same time
+        timeline = Timeline.staggered(words.size(), 0, 0, 0, 1000, easing);
+    }
+
+    @Benchmark
+    public float frame() {
+        // frames of the first second over and over again, time going back restarts the words
+        elapsed = (elapsed + FRAME_INTERVAL) % 1000;
+        timeline.update(elapsed, positions);
+        return positions.getY(words.size() - 1);
+    }
+}
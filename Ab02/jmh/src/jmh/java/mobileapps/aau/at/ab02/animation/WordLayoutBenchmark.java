@@ -0,0 +1,53 @@
+package mobileapps.aau.at.ab02.animation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Cost of laying out measured words, after measuring and after a change of the width only.
+ */
+@State(Scope.Benchmark)
+public class WordLayoutBenchmark {
+
+    private static final int CONTENT_WIDTH = 1080;
+    private static final int CONTENT_HEIGHT = 1920;
+    private static final int SPACE_WIDTH = 20;
+
+    @Param({"1000", "10000"})
+    public int numWords;
+
+    @Param({"GREEDY", "MINIMUM_RAGGEDNESS"})
+    public LineBreaker.Mode mode;
+
+    private WordStore words;
+    private WordLayout layout;
+    private WordPositions positions;
+    private int resizes = 0;
+
+    @Setup
+    public void setUp() throws IOException {
+        words = BenchmarkTexts.measure(BenchmarkTexts.create(numWords, new Random(42)));
+        layout = new WordLayout(mode);
+        positions = new WordPositions(words.size());
+    }
+
+    @Benchmark
+    public int remeasured() {
+        layout.layout(words, true, CONTENT_WIDTH, CONTENT_HEIGHT, SPACE_WIDTH, -67.0f, 18.0f, 8.0f, positions);
+        return layout.getNumLines();
+    }
+
+    @Benchmark
+    public int resized() {
+        // alternating between portrait and landscape
+        final int width = resizes++ % 2 == 0 ? CONTENT_WIDTH : CONTENT_HEIGHT;
+        layout.layout(words, false, width, CONTENT_HEIGHT, SPACE_WIDTH, -67.0f, 18.0f, 8.0f, positions);
+        return layout.getNumLines();
+    }
+}
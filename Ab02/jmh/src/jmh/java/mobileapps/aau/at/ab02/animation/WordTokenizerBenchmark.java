@@ -0,0 +1,46 @@
+package mobileapps.aau.at.ab02.animation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+
+/**
+ * Throughput of splitting a text into words, from a string and streamed from a reader.
+ */
+@State(Scope.Benchmark)
+public class WordTokenizerBenchmark {
+
+    @Param({"1000", "100000"})
+    public int numWords;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = BenchmarkTexts.create(numWords, new Random(42));
+    }
+
+    @Benchmark
+    public int fromString() throws IOException {
+        return countWords(new WordTokenizer(text));
+    }
+
+    @Benchmark
+    public int fromReader() throws IOException {
+        return countWords(new WordTokenizer(new StringReader(text)));
+    }
+
+    private static int countWords(WordTokenizer tokenizer) throws IOException {
+        int chars = 0;
+        while (tokenizer.nextWord()) {
+            chars += tokenizer.getWordLength();
+        }
+        return chars;
+    }
+}
@@ -0,0 +1,53 @@
+#!/usr/bin/env bash
+#
+# Measures cold starts of the main screen on the connected device or emulator.
+#
+# usage: scripts/cold-start.sh [runs]
+#
+# The app has to be installed, e.g. with "./gradlew installDebug". Each run stops the app,
+# starts the main activity with "am start -W" and reads from the log
+#   first frame   TotalTime reported by the activity manager
+#   interactive   "Fully drawn" time, reported by MainActivity once the rows are shown
+#   startup       trace sections and milestones logged by MainActivity
+# The medians over all runs are printed at the end. The same sections show up in systrace or
+# Perfetto captures of the app, e.g. "systrace.py -a mobileapps.aau.at.ab02 gfx view am".
+
+set -euo pipefail
+
+RUNS=${1:-10}
+PACKAGE=mobileapps.aau.at.ab02
+ACTIVITY=$PACKAGE/.MainActivity
+
+# "+1s234ms" or "+234ms" to milliseconds
+to_millis() {
+    sed 's/.*+//; s/ms$//' | awk -Fs '{ print NF == 2 ? $1 * 1000 + $2 : $1 }'
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { if (NR == 0) print "-"; else if (NR % 2) print v[(NR + 1) / 2]; else print (v[NR / 2] + v[NR / 2 + 1]) / 2 }'
+}
+
+first_frames=""
+interactives=""
+for ((run = 1; run <= RUNS; run++)); do
+    adb shell am force-stop "$PACKAGE"
+    # let the system settle after the process was killed
+    sleep 1
+    adb logcat -c
+
+    first_frame=$(adb shell am start -W -n "$ACTIVITY" | tr -d '\r' | awk -F': ' '/^TotalTime/ { print $2 }')
+
+    # the rows are shown a few frames later
+    sleep 2
+    log=$(adb logcat -d | tr -d '\r')
+    interactive=$(echo "$log" | grep -o "Fully drawn $ACTIVITY: +[0-9s]*ms" | tail -n 1 | to_millis || true)
+    startup=$(echo "$log" | grep -o 'startup:.*' | tail -n 1 || true)
+
+    echo "run $run: first frame ${first_frame:--} ms, interactive ${interactive:--} ms"
+    echo "    $startup"
+    first_frames="$first_frames$first_frame"$'\n'
+    interactives="$interactives$interactive"$'\n'
+done
+
+echo "median of $RUNS runs: first frame $(echo -n "$first_frames" | grep . | median) ms," \
+    "interactive $(echo -n "$interactives" | grep . | median) ms"
@@ -0,0 +1,182 @@
+package mobileapps.aau.at.testing;
+
+import org.junit.Assume;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+/**
+ * Budget of bytes an operation on a hot path may allocate, checked in JVM tests.
+ *
+ * <p>
+ *     Allocations are counted with the allocation counter the JVM keeps per thread, so only
+ *     the thread running the operation is measured and no agent is needed. The operation is
+ *     run as often as it is measured before, so that objects created once, growing arrays
+ *     and the JIT compiler do not count, then the bytes allocated are averaged.
+ * </p>
+ *
+ * <p>
+ *     Robolectric's shadows might allocate where the framework on a device does not, e.g.
+ *     for recording the points of paths. Such costs are measured with a baseline operation
+ *     doing only the framework calls, which is subtracted from the operation. Drawing is
+ *     measured with {@link ShadowPlainCanvas} instead, since recording the drawing commands
+ *     costs too much to be subtracted reliably.
+ * </p>
+ *
+ * <p>
+ *     Shared by the JVM tests of both apps, see {@code test.java.srcDirs} in their build files.
+ *     A budget which is exceeded fails the test and therefore the build.
+ * </p>
+ */
+public final class AllocationBudget {
+
+    /**
+     * Number of operations measured, unless set otherwise.
+     */
+    public static final int DEFAULT_OPERATIONS = 10000;
+
+    /**
+     * Operation on a hot path, run once per measured iteration.
+     */
+    public interface Operation {
+
+        /**
+         * Run the operation.
+         *
+         * @param iteration Number of the iteration, e.g. for varying the input.
+         */
+        void run(int iteration) throws Exception;
+    }
+
+    private static final Operation NOTHING = new Operation() {
+        @Override
+        public void run(int iteration) {
+            // nothing to subtract
+        }
+    };
+
+    private final String name;
+    private final double maxBytesPerOperation;
+    private int numOperations = DEFAULT_OPERATIONS;
+    private Operation baseline = NOTHING;
+
+    /**
+     * Create a new budget.
+     *
+     * @param name                 Name of the hot path, used in the failure message.
+     * @param maxBytesPerOperation Bytes one operation may allocate on average, 0 if it must not allocate.
+     * @throws IllegalArgumentException if the name is null or the budget negative.
+     */
+    public AllocationBudget(String name, double maxBytesPerOperation) {
+        if (name == null) {
+            throw new IllegalArgumentException("name is null");
+        }
+        if (maxBytesPerOperation < 0) {
+            throw new IllegalArgumentException("maxBytesPerOperation < 0");
+        }
+
+        this.name = name;
+        this.maxBytesPerOperation = maxBytesPerOperation;
+    }
+
+    /**
+     * Set the number of operations measured.
+     *
+     * @throws IllegalArgumentException if the number is not positive.
+     */
+    public AllocationBudget setOperations(int numOperations) {
+        if (numOperations <= 0) {
+            throw new IllegalArgumentException("numOperations <= 0");
+        }
+
+        this.numOperations = numOperations;
+        return this;
+    }
+
+    /**
+     * Set an operation whose allocations are not counted against the budget.
+     *
+     * @param baseline Operation doing what the measured one does besides the hot path.
+     * @throws IllegalArgumentException if the baseline is null.
+     */
+    public AllocationBudget setBaseline(Operation baseline) {
+        if (baseline == null) {
+            throw new IllegalArgumentException("baseline is null");
+        }
+
+        this.baseline = baseline;
+        return this;
+    }
+
+    /**
+     * Measure an operation and fail if it allocates more than the budget.
+     *
+     * <p>
+     *     The test is skipped if the JVM cannot count allocations per thread.
+     * </p>
+     *
+     * @param operation Operation on the hot path.
+     * @return Bytes allocated per operation, without the baseline.
+     * @throws AssertionError if the budget is exceeded.
+     */
+    public double check(Operation operation) throws Exception {
+        if (operation == null) {
+            throw new IllegalArgumentException("operation is null");
+        }
+        Assume.assumeTrue("allocations per thread are not counted", isSupported());
+
+        // warm up both, so that neither counts one-time allocations
+        measure(baseline, numOperations);
+        measure(operation, numOperations);
+
+        final double baselineBytes = measure(baseline, numOperations);
+        final double bytes = measure(operation, numOperations) - baselineBytes;
+
+        final String result = String.format(Locale.US, "%s: %.1f bytes per operation (baseline %.1f), budget %.1f",
+                name, bytes, baselineBytes, maxBytesPerOperation);
+        System.out.println(result);
+        if (bytes > maxBytesPerOperation) {
+            throw new AssertionError(result);
+        }
+        return bytes;
+    }
+
+    /**
+     * Measure the bytes an operation allocates on average, without warming it up.
+     *
+     * @param operation     Operation to run.
+     * @param numOperations Number of times the operation is run.
+     */
+    public static double measure(Operation operation, int numOperations) throws Exception {
+        final long start = getAllocatedBytes();
+        for (int i = 0; i < numOperations; i++) {
+            operation.run(i);
+        }
+        return (double) (getAllocatedBytes() - start) / numOperations;
+    }
+
+    /**
+     * Get the bytes allocated by the current thread so far.
+     *
+     * @throws UnsupportedOperationException if the JVM does not count allocations per thread.
+     */
+    public static long getAllocatedBytes() {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("allocations per thread are not counted");
+        }
+
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Indicates whether the JVM counts the allocations per thread.
+     */
+    public static boolean isSupported() {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemoryEnabled();
+    }
+}
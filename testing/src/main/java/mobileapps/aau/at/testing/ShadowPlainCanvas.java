@@ -0,0 +1,53 @@
+package mobileapps.aau.at.testing;
+
+import android.graphics.Canvas;
+
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+
+/**
+ * Shadow of {@link Canvas} which draws nothing and records nothing.
+ *
+ * <p>
+ *     Robolectric's own shadow keeps a history and a description of all drawing commands,
+ *     which allocates far more than the code drawing, so allocation budgets of drawing are
+ *     checked with this one instead. The framework code of the canvas runs as usual, only
+ *     the native calls are skipped, and the number of saved states is kept, since restoring
+ *     more often than saving is an error.
+ * </p>
+ *
+ * <p>
+ *     Enabled by {@code @Config(shadows = ShadowPlainCanvas.class)}.
+ * </p>
+ */
+@Implements(Canvas.class)
+public class ShadowPlainCanvas {
+
+    private int saveCount = 1;
+
+    @Implementation
+    public int save() {
+        return saveCount++;
+    }
+
+    @Implementation
+    public void restore() {
+        if (saveCount <= 1) {
+            throw new IllegalStateException("Underflow in restore - more restores than saves");
+        }
+        saveCount--;
+    }
+
+    @Implementation
+    public void restoreToCount(int saveCount) {
+        if (saveCount < 1 || saveCount > this.saveCount) {
+            throw new IllegalArgumentException("Underflow in restoreToCount - more restores than saves");
+        }
+        this.saveCount = saveCount;
+    }
+
+    @Implementation
+    public int getSaveCount() {
+        return saveCount;
+    }
+}